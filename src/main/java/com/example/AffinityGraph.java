@@ -0,0 +1,193 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Epsilon ("affinity") graph over node attributes: every pair whose
+ * {@link Edge} cost is at least a threshold c. Since cost = 1 / (1 + d), that
+ * is every pair at attribute distance d <= 1/c - 1.
+ *
+ * Nodes are bucketed into a uniform grid over (activity, interaction,
+ * projects) with cells no smaller than that radius, so a node only has to be
+ * compared with its own cell and the 26 around it. Each cell pair is visited
+ * once (own cell plus the 13 "forward" neighbors), and blocks of cells run in
+ * parallel.
+ */
+public final class AffinityGraph {
+
+    // Cells per parallel task
+    private static final int CHUNK = 256;
+
+    // Bits per axis in a packed cell key
+    private static final int BITS = 21;
+    private static final long MASK = (1L << BITS) - 1;
+
+    // Neighbor offsets after (0, 0, 0) in lexicographic order
+    private static final int[][] FORWARD = forwardOffsets();
+
+    private AffinityGraph() {
+    }
+
+    // Largest attribute distance whose edge cost is still >= threshold
+    public static double radiusFor(double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("Threshold must be in (0, 1]: " + threshold);
+        }
+        return 1.0 / threshold - 1.0;
+    }
+
+    // All pairs, without a size limit
+    public static long[] pairs(List<Node> nodes, double threshold) {
+        return pairs(nodes, threshold, Long.MAX_VALUE);
+    }
+
+    /**
+     * Pairs (i, j), i < j, of positions in {@code nodes} with
+     * Edge cost >= threshold, each packed as {@code (long) i << 32 | j}.
+     *
+     * @throws IllegalStateException if there are more than maxPairs of them
+     */
+    public static long[] pairs(List<Node> nodes, double threshold, long maxPairs) {
+        double radius = radiusFor(threshold);
+        int n = nodes.size();
+        if (n < 2) return new long[0];
+
+        double[][] points = new double[n][];
+        double[] min = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+        double[] max = { -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+        for (int i = 0; i < n; i++) {
+            points[i] = AttributeIndex.pointOf(nodes.get(i));
+            for (int a = 0; a < 3; a++) {
+                min[a] = Math.min(min[a], points[i][a]);
+                max[a] = Math.max(max[a], points[i][a]);
+            }
+        }
+
+        // Cells must be at least `radius` wide; widen them if the grid would not fit the key
+        double extent = Math.max(max[0] - min[0], Math.max(max[1] - min[1], max[2] - min[2]));
+        double cell = Math.max(radius, extent / (MASK - 1));
+        if (cell <= 0) cell = 1; // radius 0 and all points equal
+
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            long key = 0;
+            for (int a = 0; a < 3; a++) key = key << BITS | (long) ((points[i][a] - min[a]) / cell);
+            keys[i] = key;
+        }
+
+        // Group nodes by cell: order[start[c] .. start[c + 1]) are the nodes of cell c
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) boxed[i] = i;
+        Arrays.sort(boxed, (x, y) -> Long.compare(keys[x], keys[y]));
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = boxed[i];
+
+        int cells = 0;
+        int[] start = new int[n + 1];
+        long[] cellKeys = new long[n];
+        Map<Long, Integer> cellOf = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            long key = keys[order[i]];
+            if (i == 0 || key != cellKeys[cells - 1]) {
+                cellKeys[cells] = key;
+                cellOf.put(key, cells);
+                start[cells++] = i;
+            }
+        }
+        start[cells] = n;
+
+        double limit = radius * radius;
+        int chunks = (cells + CHUNK - 1) / CHUNK;
+        final int cellCount = cells;
+        AtomicLong found = new AtomicLong();
+        return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+            PairBuffer out = new PairBuffer();
+            int to = Math.min(cellCount, (chunk + 1) * CHUNK);
+            long before = 0;
+            for (int c = chunk * CHUNK; c < to; c++) {
+                // Within the cell
+                for (int p = start[c]; p < start[c + 1]; p++) {
+                    for (int q = p + 1; q < start[c + 1]; q++) {
+                        emit(out, order[p], order[q], points, limit, threshold, nodes);
+                    }
+                }
+                // Against each forward neighbor cell
+                long key = cellKeys[c];
+                for (int[] d : FORWARD) {
+                    Integer other = cellOf.get(shift(key, d));
+                    if (other == null) continue;
+                    for (int p = start[c]; p < start[c + 1]; p++) {
+                        for (int q = start[other]; q < start[other + 1]; q++) {
+                            emit(out, order[p], order[q], points, limit, threshold, nodes);
+                        }
+                    }
+                }
+                // Fail fast instead of running out of memory on a too low threshold
+                long emitted = out.count;
+                if (found.addAndGet(emitted - before) > maxPairs) {
+                    throw new IllegalStateException("More than " + maxPairs + " pairs at threshold " + threshold);
+                }
+                before = emitted;
+            }
+            return out.toArray();
+        }).flatMapToLong(LongStream::of).toArray();
+    }
+
+    private static void emit(PairBuffer out, int i, int j, double[][] points,
+                             double limit, double threshold, List<Node> nodes) {
+        double dx = points[i][0] - points[j][0];
+        double dy = points[i][1] - points[j][1];
+        double dz = points[i][2] - points[j][2];
+        // Cheap squared-distance filter, then the exact cost so the result matches Edge
+        if (dx * dx + dy * dy + dz * dz > limit * (1 + 1e-12)) return;
+        if (Edge.calculateCost(nodes.get(i), nodes.get(j)) < threshold) return;
+        out.add(i < j ? (long) i << 32 | j : (long) j << 32 | i);
+    }
+
+    // Growable long array, one per task
+    private static final class PairBuffer {
+        long[] data = new long[64];
+        int count;
+
+        void add(long pair) {
+            if (count == data.length) data = Arrays.copyOf(data, count * 2);
+            data[count++] = pair;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(data, count);
+        }
+    }
+
+    // Key of the cell at the given offset; out-of-range cells get a key no cell has
+    private static long shift(long key, int[] d) {
+        long result = 0;
+        for (int a = 0; a < 3; a++) {
+            long coordinate = (key >>> (BITS * (2 - a)) & MASK) + d[a];
+            if (coordinate < 0 || coordinate > MASK) return -1;
+            result = result << BITS | coordinate;
+        }
+        return result;
+    }
+
+    private static int[][] forwardOffsets() {
+        int[][] offsets = new int[13][];
+        int k = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (dx > 0 || (dx == 0 && (dy > 0 || (dy == 0 && dz > 0)))) {
+                        offsets[k++] = new int[] { dx, dy, dz };
+                    }
+                }
+            }
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * All-pairs shortest path distances: one single-source Dijkstra per node,
+ * spread over a fork-join pool. Every leaf task takes one pooled
+ * {@link SearchState} and reuses it for all rows of its block.
+ *
+ * Use {@link #distanceMatrix} when V * V floats fit in memory, otherwise
+ * {@link #writeCsv} streams the matrix to disk block by block.
+ */
+public final class AllPairsShortestPaths {
+
+    // Rows computed per leaf task
+    private static final int ROWS_PER_TASK = 16;
+    // Matrix cells kept in memory at once while streaming (64 MB of floats)
+    private static final int BATCH_CELLS = 1 << 24;
+
+    private AllPairsShortestPaths() {
+    }
+
+    // Row-major V x V matrix; unreachable pairs are +inf
+    public static float[] distanceMatrix(CsrGraph g) {
+        return distanceMatrix(g, ForkJoinPool.commonPool());
+    }
+
+    public static float[] distanceMatrix(CsrGraph g, ForkJoinPool pool) {
+        long cells = (long) g.nodeCount() * g.nodeCount();
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph too large for an in-memory matrix ("
+                    + g.nodeCount() + " nodes); use writeCsv instead.");
+        }
+        float[] matrix = new float[(int) cells];
+        pool.invoke(new RowTask(g, matrix, 0, 0, g.nodeCount()));
+        return matrix;
+    }
+
+    /**
+     * Writes the matrix as CSV (header row and first column hold node ids,
+     * empty cells mean unreachable). At most BATCH_CELLS distances are held
+     * in memory at a time.
+     */
+    public static void writeCsv(CsrGraph g, Path file) throws IOException {
+        writeCsv(g, file, ForkJoinPool.commonPool());
+    }
+
+    public static void writeCsv(CsrGraph g, Path file, ForkJoinPool pool) throws IOException {
+        int n = g.nodeCount();
+        int batchRows = Math.max(1, Math.min(n, BATCH_CELLS / Math.max(1, n)));
+        float[] batch = new float[batchRows * n];
+
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("id");
+            for (int v = 0; v < n; v++) {
+                out.write(',');
+                out.write(String.valueOf(g.idOf(v)));
+            }
+            out.newLine();
+
+            for (int first = 0; first < n; first += batchRows) {
+                int last = Math.min(n, first + batchRows);
+                pool.invoke(new RowTask(g, batch, first, first, last));
+
+                for (int row = first; row < last; row++) {
+                    out.write(String.valueOf(g.idOf(row)));
+                    int base = (row - first) * n;
+                    for (int v = 0; v < n; v++) {
+                        out.write(',');
+                        float d = batch[base + v];
+                        if (d != Float.POSITIVE_INFINITY) out.write(Float.toString(d));
+                    }
+                    out.newLine();
+                }
+            }
+        }
+    }
+
+    // Fills rows [from, to) of the matrix; row r is stored at (r - firstRow) * n
+    // ForkJoinTask is Serializable, but tasks are never serialized; the snapshot is not Serializable
+    private static final class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient CsrGraph g;
+        private final float[] matrix;
+        private final int firstRow, from, to;
+
+        RowTask(CsrGraph g, float[] matrix, int firstRow, int from, int to) {
+            this.g = g;
+            this.matrix = matrix;
+            this.firstRow = firstRow;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowTask(g, matrix, firstRow, from, mid),
+                          new RowTask(g, matrix, firstRow, mid, to));
+                return;
+            }
+
+            int n = g.nodeCount();
+            SearchState state = g.acquireState();
+            try {
+                for (int row = from; row < to; row++) {
+                    GraphAlgorithms.runDijkstra(g, row, -1, state);
+                    int base = (row - firstRow) * n;
+                    for (int v = 0; v < n; v++) matrix[base + v] = (float) state.distance(v);
+                }
+            } finally {
+                state.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * k-d tree over the (activity, interaction, projects) space of the nodes of a
+ * {@link Graph}, using the same Euclidean distance as {@link Edge} costs.
+ *
+ * Built balanced (median splits) on first use. After that, new nodes are
+ * inserted as leaves and removed or edited nodes leave a tombstone; once the
+ * updates outnumber the nodes of the last build, the tree is rebuilt, which
+ * keeps the depth logarithmic at amortized O(log n) per update.
+ */
+final class AttributeIndex {
+
+    private static final class Entry {
+        final Node node;
+        final double[] point;
+        final int axis;
+        Entry left, right;
+        boolean deleted;
+
+        Entry(Node node, int axis) {
+            this.node = node;
+            this.point = pointOf(node);
+            this.axis = axis;
+        }
+    }
+
+    private record Candidate(Node node, double distance) {
+    }
+
+    private Entry root;
+    private final Map<Node, Entry> entries = new HashMap<>();
+    private int builtSize;
+    private int updates;
+    private boolean stale = true;
+
+    boolean isStale() {
+        return stale;
+    }
+
+    void markStale() {
+        stale = true;
+        root = null;
+        entries.clear();
+    }
+
+    void rebuild(Graph g) {
+        entries.clear();
+        Entry[] all = new Entry[g.nodes.size()];
+        for (int i = 0; i < all.length; i++) all[i] = new Entry(g.nodes.get(i), 0);
+        root = build(all, 0, all.length, 0);
+        builtSize = all.length;
+        updates = 0;
+        stale = false;
+    }
+
+    void add(Graph g, Node n) {
+        if (stale) return;
+        Entry old = entries.get(n);
+        if (old != null) old.deleted = true;
+
+        if (root == null) {
+            root = new Entry(n, 0);
+            entries.put(n, root);
+        } else {
+            double[] p = pointOf(n);
+            Entry at = root;
+            while (true) {
+                boolean goLeft = p[at.axis] < at.point[at.axis];
+                Entry next = goLeft ? at.left : at.right;
+                if (next == null) {
+                    Entry leaf = new Entry(n, (at.axis + 1) % 3);
+                    if (goLeft) at.left = leaf;
+                    else at.right = leaf;
+                    entries.put(n, leaf);
+                    break;
+                }
+                at = next;
+            }
+        }
+        if (++updates > Math.max(16, builtSize)) rebuild(g);
+    }
+
+    void remove(Graph g, Node n) {
+        if (stale) return;
+        Entry e = entries.remove(n);
+        if (e == null) return;
+        e.deleted = true;
+        if (++updates > Math.max(16, builtSize)) rebuild(g);
+    }
+
+    // The k nodes closest to point, nearest first; `exclude` is skipped (may be null)
+    List<Node> nearest(double[] point, int k, Node exclude) {
+        PriorityQueue<Candidate> best = new PriorityQueue<>(
+                (a, b) -> Double.compare(b.distance(), a.distance())); // farthest on top
+        if (k > 0) nearest(root, point, k, exclude, best);
+
+        Candidate[] sorted = best.toArray(new Candidate[0]);
+        Arrays.sort(sorted, (a, b) -> Double.compare(a.distance(), b.distance()));
+        List<Node> result = new ArrayList<>(sorted.length);
+        for (Candidate c : sorted) result.add(c.node());
+        return result;
+    }
+
+    // Every node within `radius` of point, nearest first
+    List<Node> within(double[] point, double radius, Node exclude) {
+        List<Candidate> found = new ArrayList<>();
+        within(root, point, radius, exclude, found);
+        found.sort((a, b) -> Double.compare(a.distance(), b.distance()));
+        List<Node> result = new ArrayList<>(found.size());
+        for (Candidate c : found) result.add(c.node());
+        return result;
+    }
+
+    private void nearest(Entry e, double[] p, int k, Node exclude, PriorityQueue<Candidate> best) {
+        if (e == null) return;
+        if (!e.deleted && e.node != exclude) {
+            double d = distance(p, e.point);
+            if (best.size() < k) best.add(new Candidate(e.node, d));
+            else if (d < best.peek().distance()) {
+                best.poll();
+                best.add(new Candidate(e.node, d));
+            }
+        }
+        double diff = p[e.axis] - e.point[e.axis];
+        Entry near = diff < 0 ? e.left : e.right;
+        Entry far = diff < 0 ? e.right : e.left;
+        nearest(near, p, k, exclude, best);
+        // The far side can only help if the splitting plane is closer than the current k-th
+        if (best.size() < k || Math.abs(diff) < best.peek().distance()) nearest(far, p, k, exclude, best);
+    }
+
+    private void within(Entry e, double[] p, double radius, Node exclude, List<Candidate> found) {
+        if (e == null) return;
+        if (!e.deleted && e.node != exclude) {
+            double d = distance(p, e.point);
+            if (d <= radius) found.add(new Candidate(e.node, d));
+        }
+        double diff = p[e.axis] - e.point[e.axis];
+        if (diff < 0 || Math.abs(diff) <= radius) within(e.left, p, radius, exclude, found);
+        if (diff >= 0 || Math.abs(diff) <= radius) within(e.right, p, radius, exclude, found);
+    }
+
+    // Balanced subtree over all[from, to), splitting on the median of `axis`
+    private Entry build(Entry[] all, int from, int to, int axis) {
+        if (from >= to) return null;
+        // Keys equal to the median may land on either side; searches only rely on left <= split <= right
+        int mid = (from + to) >>> 1;
+        select(all, from, to - 1, mid, axis);
+
+        Entry median = new Entry(all[mid].node, axis);
+        entries.put(median.node, median);
+        int next = (axis + 1) % 3;
+        median.left = build(all, from, mid, next);
+        median.right = build(all, mid + 1, to, next);
+        return median;
+    }
+
+    // Quickselect: all[k] gets its sorted value, smaller keys before it, larger after (O(n) expected)
+    private static void select(Entry[] all, int lo, int hi, int k, int axis) {
+        while (lo < hi) {
+            double pivot = all[(lo + hi) >>> 1].point[axis];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (all[i].point[axis] < pivot) i++;
+                while (all[j].point[axis] > pivot) j--;
+                if (i <= j) {
+                    Entry t = all[i];
+                    all[i++] = all[j];
+                    all[j--] = t;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    static double[] pointOf(Node n) {
+        return new double[] { n.activity, n.interaction, n.projects };
+    }
+
+    private static double distance(double[] a, double[] b) {
+        double dx = a[0] - b[0], dy = a[1] - b[1], dz = a[2] - b[2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}
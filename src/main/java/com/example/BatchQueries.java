@@ -0,0 +1,183 @@
+package com.example;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs many path / reachability queries concurrently against one read-only
+ * {@link CsrGraph} snapshot, one virtual thread per query.
+ *
+ * Each query takes its own {@link SearchState} from the snapshot's pool.
+ * States are O(V), so at most {@code maxConcurrent} queries run at a time;
+ * new virtual threads are only started as earlier ones finish. Reachability
+ * is answered from component labels computed once per batch. Results are
+ * streamed in completion order, each with its own latency.
+ */
+public final class BatchQueries {
+
+    // Default cap on queries holding search state at once
+    public static final int DEFAULT_MAX_CONCURRENT = 4 * Runtime.getRuntime().availableProcessors();
+
+    private BatchQueries() {
+    }
+
+    /** One request; a null algorithm asks only whether target is reachable. */
+    public record Query(Node source, Node target, PathAlgorithm algorithm) {
+
+        public static Query reachability(Node source, Node target) {
+            return new Query(source, target, null);
+        }
+
+        public boolean isReachability() {
+            return algorithm == null;
+        }
+    }
+
+    /**
+     * Outcome of the query at position {@code index} of the batch. Path is
+     * empty for reachability queries and unreachable targets; distance is the
+     * path cost (infinite if unreachable, NaN for reachability queries).
+     */
+    public record Result(int index, Query query, List<Node> path, double distance,
+                         boolean reachable, long latencyNanos, Throwable error) {
+
+        public double latencyMillis() {
+            return latencyNanos / 1_000_000.0;
+        }
+    }
+
+    public static Stream<Result> run(CsrGraph g, List<Query> queries) {
+        return run(g, queries, DEFAULT_MAX_CONCURRENT);
+    }
+
+    /**
+     * Starts the whole batch and returns its results as they complete. The
+     * stream blocks while waiting for the next result; closing it cancels
+     * the queries that have not finished.
+     */
+    public static Stream<Result> run(CsrGraph g, List<Query> queries, int maxConcurrent) {
+        prepare(g, queries);
+        int[] components = needsComponents(queries) ? GraphAlgorithms.componentLabels(g) : null;
+
+        BlockingQueue<Result> done = new LinkedBlockingQueue<>();
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrent));
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        // Threads are started only when a permit is free, so a huge batch
+        // never has more than maxConcurrent of them alive
+        Thread dispatcher = Thread.ofVirtual().start(() -> {
+            try {
+                for (int i = 0; i < queries.size(); i++) {
+                    permits.acquire();
+                    int index = i;
+                    executor.execute(() -> {
+                        try {
+                            done.add(execute(g, components, index, queries.get(index)));
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            } catch (InterruptedException | RejectedExecutionException e) {
+                // batch closed
+            } finally {
+                executor.shutdown();
+            }
+        });
+
+        // Not SIZED: count() and friends must still wait for every query
+        Spliterator<Result> results = new Spliterators.AbstractSpliterator<Result>(queries.size(),
+                Spliterator.NONNULL) {
+            private int remaining = queries.size();
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Result> action) {
+                if (remaining == 0) return false;
+                try {
+                    action.accept(done.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dispatcher.interrupt();
+                    executor.shutdownNow();
+                    return false;
+                }
+                remaining--;
+                return true;
+            }
+        };
+        return StreamSupport.stream(results, false).onClose(() -> {
+            dispatcher.interrupt();
+            executor.shutdownNow();
+        });
+    }
+
+    private static Result execute(CsrGraph g, int[] components, int index, Query q) {
+        long start = System.nanoTime();
+        try {
+            int s = q.source() == null ? -1 : g.indexOf(q.source());
+            int t = q.target() == null ? -1 : g.indexOf(q.target());
+            if (s < 0 || t < 0) {
+                return new Result(index, q, List.of(), q.isReachability() ? Double.NaN : Double.POSITIVE_INFINITY,
+                        false, System.nanoTime() - start, null);
+            }
+            if (q.isReachability()) {
+                return new Result(index, q, List.of(), Double.NaN, components[s] == components[t],
+                        System.nanoTime() - start, null);
+            }
+
+            int[] path = path(g, q.algorithm(), s, t);
+            double distance = path.length == 0 ? Double.POSITIVE_INFINITY : pathCost(g, path);
+            return new Result(index, q, g.toNodes(path), distance, path.length > 0,
+                    System.nanoTime() - start, null);
+        } catch (Throwable e) {
+            // Errors too (e.g. StackOverflowError): every query must yield a Result,
+            // or the stream would wait for it forever
+            return new Result(index, q, List.of(), Double.NaN, false, System.nanoTime() - start, e);
+        }
+    }
+
+    private static int[] path(CsrGraph g, PathAlgorithm algorithm, int s, int t) {
+        switch (algorithm) {
+            case BIDIRECTIONAL_DIJKSTRA: return GraphAlgorithms.runBidirectionalDijkstra(g, s, t);
+            case CONTRACTION_HIERARCHY: return g.contractionHierarchy().query(s, t);
+            case ASTAR: return GraphAlgorithms.runAStar(g, s, t);
+            default: return GraphAlgorithms.runDijkstra(g, s, t);
+        }
+    }
+
+    // Sum of edge costs along an index path (cheapest parallel entry per step)
+    static double pathCost(CsrGraph g, int[] path) {
+        double total = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            double step = Double.POSITIVE_INFINITY;
+            for (int k = g.offsets[path[i]]; k < g.offsets[path[i] + 1]; k++) {
+                if (g.targets[k] == path[i + 1]) step = Math.min(step, g.costs[k]);
+            }
+            total += step;
+        }
+        return total;
+    }
+
+    // Landmarks and the hierarchy are built lazily under the snapshot's lock;
+    // build them up front instead of parking every virtual thread on it
+    private static void prepare(CsrGraph g, List<Query> queries) {
+        for (Query q : queries) {
+            if (q.algorithm() == PathAlgorithm.ASTAR) g.landmarks();
+            if (q.algorithm() == PathAlgorithm.CONTRACTION_HIERARCHY) g.contractionHierarchy();
+        }
+    }
+
+    private static boolean needsComponents(List<Query> queries) {
+        for (Query q : queries) if (q.isReachability()) return true;
+        return false;
+    }
+}
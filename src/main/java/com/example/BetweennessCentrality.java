@@ -0,0 +1,115 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Brandes betweenness centrality over hop distances on a {@link CsrGraph}.
+ *
+ * Every source runs one BFS that counts shortest paths (sigma) and then
+ * accumulates dependencies (delta) in reverse visit order. Sources are
+ * processed in parallel; each stream split gets its own {@link Accumulator}
+ * with private scratch arrays and scores, merged at the end.
+ *
+ * {@link #sampled} runs the same pass from a random subset of pivots and
+ * scales the result by V / pivots (Brandes and Pich), for graphs where V
+ * full BFS runs are too slow.
+ */
+public final class BetweennessCentrality {
+
+    public static final int DEFAULT_PIVOTS = 256;
+
+    private BetweennessCentrality() {
+    }
+
+    // Exact scores for an undirected graph (each pair counted once)
+    public static double[] exact(CsrGraph g) {
+        return accumulate(g, IntStream.range(0, g.nodeCount()), 0.5);
+    }
+
+    // Unbiased estimate from `pivots` distinct random sources
+    public static double[] sampled(CsrGraph g, int pivots, long seed) {
+        int n = g.nodeCount();
+        if (pivots >= n) return exact(g);
+
+        // Partial Fisher-Yates shuffle picks the pivots without repeats
+        int[] ids = new int[n];
+        for (int v = 0; v < n; v++) ids[v] = v;
+        Random random = new Random(seed);
+        for (int i = 0; i < pivots; i++) {
+            int j = i + random.nextInt(n - i);
+            int t = ids[i]; ids[i] = ids[j]; ids[j] = t;
+        }
+        return accumulate(g, IntStream.of(ids).limit(pivots), 0.5 * n / pivots);
+    }
+
+    private static double[] accumulate(CsrGraph g, IntStream sources, double scale) {
+        double[] scores = sources.parallel()
+                .collect(() -> new Accumulator(g), Accumulator::addSource, Accumulator::merge)
+                .scores;
+        for (int v = 0; v < scores.length; v++) scores[v] *= scale;
+        return scores;
+    }
+
+    private static final class Accumulator {
+        final CsrGraph g;
+        final double[] scores;
+        final int[] dist;
+        final double[] sigma;
+        final double[] delta;
+        final int[] order; // BFS visit order, doubles as the queue
+
+        Accumulator(CsrGraph g) {
+            int n = g.nodeCount();
+            this.g = g;
+            scores = new double[n];
+            dist = new int[n];
+            sigma = new double[n];
+            delta = new double[n];
+            order = new int[n];
+            Arrays.fill(dist, -1);
+        }
+
+        void addSource(int s) {
+            int head = 0, tail = 0;
+            order[tail++] = s;
+            dist[s] = 0;
+            sigma[s] = 1;
+
+            while (head < tail) {
+                int v = order[head++];
+                for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                    int w = g.targets[k];
+                    if (dist[w] < 0) {
+                        dist[w] = dist[v] + 1;
+                        order[tail++] = w;
+                    }
+                    if (dist[w] == dist[v] + 1) sigma[w] += sigma[v];
+                }
+            }
+
+            for (int i = tail - 1; i > 0; i--) {
+                int w = order[i];
+                double share = (1 + delta[w]) / sigma[w];
+                for (int k = g.offsets[w]; k < g.offsets[w + 1]; k++) {
+                    int v = g.targets[k];
+                    if (dist[v] == dist[w] - 1) delta[v] += sigma[v] * share;
+                }
+                scores[w] += delta[w];
+            }
+
+            // Only the visited nodes were touched
+            for (int i = 0; i < tail; i++) {
+                int v = order[i];
+                dist[v] = -1;
+                sigma[v] = 0;
+                delta[v] = 0;
+            }
+        }
+
+        void merge(Accumulator other) {
+            for (int v = 0; v < scores.length; v++) scores[v] += other.scores[v];
+        }
+    }
+}
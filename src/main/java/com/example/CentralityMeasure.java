@@ -0,0 +1,20 @@
+package com.example;
+
+// Rankings offered by the "Top Leaders" button
+public enum CentralityMeasure {
+    DEGREE("Degree"),
+    BETWEENNESS("Betweenness"),
+    PAGERANK("PageRank"),
+    EIGENVECTOR("Eigenvector");
+
+    private final String label;
+
+    CentralityMeasure(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Union-find over the nodes of a {@link Graph}, kept up to date by the graph
+ * itself. Insertions are merged incrementally; deletions that may split a
+ * component only mark the index stale, and the graph rebuilds it in
+ * O(V + E) on the next query.
+ */
+final class ComponentIndex {
+
+    private final Map<Node, Integer> slots = new HashMap<>();
+    private int[] parent = new int[16];
+    private int[] size = new int[16]; // live nodes per root
+    private int used;
+    private int count;
+    private boolean stale;
+
+    void add(Node n) {
+        if (slots.containsKey(n)) return;
+        if (used == parent.length) {
+            parent = Arrays.copyOf(parent, used * 2);
+            size = Arrays.copyOf(size, used * 2);
+        }
+        parent[used] = used;
+        size[used] = 1;
+        slots.put(n, used++);
+        count++;
+    }
+
+    void union(Node a, Node b) {
+        Integer sa = slots.get(a), sb = slots.get(b);
+        if (sa == null || sb == null) return;
+        int ra = find(sa), rb = find(sb);
+        if (ra == rb) return;
+        if (size[ra] < size[rb]) {
+            int t = ra; ra = rb; rb = t;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        count--;
+    }
+
+    /**
+     * Drops a node that has at most one neighbor left, which can never split
+     * its component. Its slot stays in the forest as an internal link.
+     */
+    void removeLeaf(Node n) {
+        Integer slot = slots.remove(n);
+        if (slot == null) return;
+        int root = find(slot);
+        if (--size[root] == 0) count--;
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    void clear() {
+        slots.clear();
+        used = 0;
+        count = 0;
+        stale = false;
+    }
+
+    void rebuild(Graph g) {
+        clear();
+        for (Node n : g.nodes) add(n);
+        for (Node n : g.nodes) {
+            for (Edge e : g.getEdges(n)) union(n, e.target);
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    // Root slot of n's component, or -1 for unknown nodes
+    int rootOf(Node n) {
+        Integer slot = slots.get(n);
+        return slot == null ? -1 : find(slot);
+    }
+
+    int sizeOf(Node n) {
+        int root = rootOf(n);
+        return root < 0 ? 0 : size[root];
+    }
+
+    // Upper bound (exclusive) of the values returned by rootOf
+    int capacity() {
+        return used;
+    }
+
+    private int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]]; // path halving
+            x = parent[x];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,574 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Contraction Hierarchies over the edge costs of a {@link CsrGraph}.
+ *
+ * Preprocessing contracts the nodes one by one (least important first, by
+ * edge difference) and adds a shortcut u-w whenever the path u-v-w through
+ * the contracted node v has no witness of equal or lower cost. A query is a
+ * bidirectional Dijkstra that only follows edges towards higher-ranked
+ * nodes, so it settles a tiny part of the graph. Shortcuts remember the two
+ * edges they replace, which lets results be unpacked into the original path.
+ *
+ * Nodes whose remaining degree exceeds {@link #MAX_CONTRACT_DEGREE} are not
+ * contracted: they form a core on top of the hierarchy. On expander-like
+ * (e.g. uniformly random) networks this core is structural; contracting it
+ * further multiplies shortcuts and preprocessing time and makes the core
+ * denser, not cheaper to search. So a query first runs the upward searches
+ * up to the core, then a regular bidirectional Dijkstra (sum-of-keys
+ * stopping rule) inside the core, started from all entry points at once.
+ *
+ * The hierarchy belongs to one snapshot; mutating the Graph produces a new
+ * snapshot and therefore a new hierarchy.
+ */
+public final class ContractionHierarchy {
+
+    // Witness searches give up after this many settled nodes (only adds extra shortcuts)
+    private static final int WITNESS_LIMIT = 200;
+    private static final int SIMULATION_LIMIT = 20;
+
+    public static final int MAX_CONTRACT_DEGREE = 16;
+    private static final double CORE_PRIORITY = 1e9;
+
+    private final CsrGraph graph;
+
+    // Edge store: original edges first, then shortcuts (child = -1 for original edges)
+    private int edgeCount;
+    private int[] edgeA, edgeB, child1, child2, middle;
+    private double[] edgeCost;
+
+    // Upward graph: edges from each node to higher-ranked neighbors
+    private int[] upOffsets, upTargets, upEdges;
+    private double[] upCosts;
+    private int shortcutCount;
+    private int coreSize;
+    private boolean[] core;
+    private double preprocessingMillis;
+
+    // --- preprocessing scratch (dropped after build) ---
+    private int[][] incident;
+    private int[] incidentSize;
+    private boolean[] contracted;
+    private int[] deletedNeighbors;
+    private double[] witnessDist;
+    private int[] witnessStamp;
+    private int[] targetStamp;
+    private int witnessEpoch;
+    private IndexedDaryHeap witnessHeap;
+    private int[] neighborStamp;
+    private int[] neighbors, neighborEdges;
+    private double[] neighborCosts;
+
+    private ContractionHierarchy(CsrGraph graph) {
+        this.graph = graph;
+    }
+
+    public static ContractionHierarchy build(CsrGraph g) {
+        return build(g, p -> { }, () -> false);
+    }
+
+    /**
+     * Builds the hierarchy, reporting progress in [0, 1] as it goes.
+     *
+     * @throws CancellationException as soon as {@code cancelled} returns true
+     */
+    public static ContractionHierarchy build(CsrGraph g, DoubleConsumer progress, BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        ContractionHierarchy ch = new ContractionHierarchy(g);
+        ch.preprocess(progress, cancelled);
+        ch.preprocessingMillis = (System.nanoTime() - start) / 1_000_000.0;
+        return ch;
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    // Nodes left uncontracted at the top of the hierarchy
+    public int coreSize() {
+        return coreSize;
+    }
+
+    public double preprocessingMillis() {
+        return preprocessingMillis;
+    }
+
+    // ================= PREPROCESSING =================
+
+    private void preprocess(DoubleConsumer progress, BooleanSupplier cancelled) {
+        int n = graph.nodeCount();
+        int capacity = Math.max(16, graph.edgeCount());
+        edgeA = new int[capacity];
+        edgeB = new int[capacity];
+        child1 = new int[capacity];
+        child2 = new int[capacity];
+        middle = new int[capacity];
+        edgeCost = new double[capacity];
+
+        incident = new int[n][];
+        incidentSize = new int[n];
+        for (int v = 0; v < n; v++) incident[v] = new int[Math.max(4, graph.degree(v))];
+
+        // Each undirected edge once (the CSR stores both directions)
+        for (int v = 0; v < n; v++) {
+            for (int k = graph.offsets[v]; k < graph.offsets[v + 1]; k++) {
+                int w = graph.targets[k];
+                if (v < w) addEdge(v, w, graph.costs[k], -1, -1, -1);
+            }
+        }
+
+        contracted = new boolean[n];
+        deletedNeighbors = new int[n];
+        witnessDist = new double[n];
+        witnessStamp = new int[n];
+        targetStamp = new int[n];
+        witnessHeap = new IndexedDaryHeap(n);
+        neighborStamp = new int[n];
+        neighbors = new int[16];
+        neighborEdges = new int[16];
+        neighborCosts = new double[16];
+
+        // Progress: initial priorities are the first half of the work, contraction the second
+        int step = Math.max(1, n / 100);
+        IndexedDaryHeap order = new IndexedDaryHeap(n);
+        for (int v = 0; v < n; v++) {
+            order.insert(v, priority(v));
+            if (v % step == 0) report(progress, cancelled, 0.5 * v / n);
+        }
+
+        // Core nodes keep rank n (above every contracted node)
+        int[] rank = new int[n];
+        Arrays.fill(rank, n);
+        int nextRank = 0;
+        while (!order.isEmpty()) {
+            if (order.minKey() >= CORE_PRIORITY) break;
+            int v = order.poll();
+
+            // Lazy update: re-check the priority before contracting
+            double p = priority(v);
+            if (!order.isEmpty() && p > order.minKey()) {
+                order.insert(v, p);
+                continue;
+            }
+            if (p >= CORE_PRIORITY) {
+                order.insert(v, p);
+                break;
+            }
+
+            contract(v, true);
+            contracted[v] = true;
+            rank[v] = nextRank++;
+            if (nextRank % step == 0) report(progress, cancelled, 0.5 + 0.5 * nextRank / n);
+
+            int[] nbr = Arrays.copyOf(neighbors, gatherNeighbors(v));
+            for (int w : nbr) {
+                deletedNeighbors[w]++;
+                order.update(w, priority(w));
+            }
+        }
+
+        coreSize = n - nextRank;
+        core = new boolean[n];
+        for (int v = 0; v < n; v++) core[v] = rank[v] == n;
+        buildUpwardGraph(rank, n);
+
+        incident = null;
+        incidentSize = null;
+        contracted = null;
+        deletedNeighbors = null;
+        witnessDist = null;
+        witnessStamp = null;
+        targetStamp = null;
+        witnessHeap = null;
+        neighborStamp = null;
+        neighbors = neighborEdges = null;
+        neighborCosts = null;
+        progress.accept(1.0);
+    }
+
+    private static void report(DoubleConsumer progress, BooleanSupplier cancelled, double done) {
+        if (cancelled.getAsBoolean()) throw new CancellationException("Contraction hierarchy preprocessing cancelled");
+        progress.accept(done);
+    }
+
+    // Edge difference (shortcuts added - edges removed) plus already contracted neighbors
+    private double priority(int v) {
+        int degree = gatherNeighbors(v);
+        if (degree > MAX_CONTRACT_DEGREE) return CORE_PRIORITY + degree;
+
+        int shortcuts = contract(v, false);
+        return shortcuts - degree + deletedNeighbors[v];
+    }
+
+    // Returns the number of shortcuts contracting v needs; adds them when apply is set
+    private int contract(int v, boolean apply) {
+        int count = gatherNeighbors(v);
+        int[] nbr = Arrays.copyOf(neighbors, count);
+        int[] nbrEdge = Arrays.copyOf(neighborEdges, count);
+        double[] nbrCost = Arrays.copyOf(neighborCosts, count);
+
+        int shortcuts = 0;
+        for (int i = 0; i < count; i++) {
+            double maxVia = 0;
+            for (int j = i + 1; j < count; j++) maxVia = Math.max(maxVia, nbrCost[i] + nbrCost[j]);
+            if (maxVia == 0) continue;
+
+            witnessSearch(nbr[i], v, maxVia, apply ? WITNESS_LIMIT : SIMULATION_LIMIT, nbr, i + 1, count);
+            for (int j = i + 1; j < count; j++) {
+                double via = nbrCost[i] + nbrCost[j];
+                if (witnessDistance(nbr[j]) > via) {
+                    shortcuts++;
+                    if (apply) addEdge(nbr[i], nbr[j], via, nbrEdge[i], nbrEdge[j], v);
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    // Collects the uncontracted neighbors of v (cheapest edge per neighbor)
+    private int gatherNeighbors(int v) {
+        int count = 0;
+        int kept = 0;
+        int[] list = incident[v];
+        for (int i = 0; i < incidentSize[v]; i++) {
+            int e = list[i];
+            int w = edgeA[e] == v ? edgeB[e] : edgeA[e];
+            if (contracted[w]) continue;
+            list[kept++] = e; // drop edges to contracted nodes for good
+
+            // neighborStamp holds slot + 1 of w while this call runs
+            int slot = neighborStamp[w] - 1;
+            if (slot >= 0) {
+                if (edgeCost[e] < neighborCosts[slot]) {
+                    neighborCosts[slot] = edgeCost[e];
+                    neighborEdges[slot] = e;
+                }
+                continue;
+            }
+            neighborStamp[w] = count + 1;
+
+            if (count == neighbors.length) {
+                neighbors = Arrays.copyOf(neighbors, count * 2);
+                neighborEdges = Arrays.copyOf(neighborEdges, count * 2);
+                neighborCosts = Arrays.copyOf(neighborCosts, count * 2);
+            }
+            neighbors[count] = w;
+            neighborEdges[count] = e;
+            neighborCosts[count] = edgeCost[e];
+            count++;
+        }
+        incidentSize[v] = kept;
+        for (int j = 0; j < count; j++) neighborStamp[neighbors[j]] = 0;
+        return count;
+    }
+
+    // Bounded Dijkstra from source that ignores the node being contracted;
+    // stops early once every target in targets[from..to) is settled
+    private void witnessSearch(int source, int skip, double maxCost, int settleLimit,
+                               int[] targets, int from, int to) {
+        witnessEpoch++;
+        witnessStamp[source] = witnessEpoch;
+        witnessDist[source] = 0;
+
+        int remaining = to - from;
+        for (int j = from; j < to; j++) targetStamp[targets[j]] = witnessEpoch;
+
+        IndexedDaryHeap heap = witnessHeap;
+        heap.clear();
+        heap.insert(source, 0);
+
+        int settled = 0;
+        while (!heap.isEmpty() && heap.minKey() <= maxCost && settled++ < settleLimit) {
+            int x = heap.poll();
+            if (targetStamp[x] == witnessEpoch && --remaining == 0) break;
+
+            double dx = witnessDist[x];
+            for (int i = 0; i < incidentSize[x]; i++) {
+                int e = incident[x][i];
+                int y = edgeA[e] == x ? edgeB[e] : edgeA[e];
+                if (y == skip || contracted[y]) continue;
+
+                double d = dx + edgeCost[e];
+                if (d <= maxCost && d < witnessDistance(y)) {
+                    witnessStamp[y] = witnessEpoch;
+                    witnessDist[y] = d;
+                    heap.insertOrDecrease(y, d);
+                }
+            }
+        }
+    }
+
+    private double witnessDistance(int v) {
+        return witnessStamp[v] == witnessEpoch ? witnessDist[v] : Double.POSITIVE_INFINITY;
+    }
+
+    private void addEdge(int a, int b, double cost, int first, int second, int mid) {
+        if (edgeCount == edgeA.length) {
+            int capacity = edgeCount * 2;
+            edgeA = Arrays.copyOf(edgeA, capacity);
+            edgeB = Arrays.copyOf(edgeB, capacity);
+            child1 = Arrays.copyOf(child1, capacity);
+            child2 = Arrays.copyOf(child2, capacity);
+            middle = Arrays.copyOf(middle, capacity);
+            edgeCost = Arrays.copyOf(edgeCost, capacity);
+        }
+        int e = edgeCount++;
+        edgeA[e] = a;
+        edgeB[e] = b;
+        edgeCost[e] = cost;
+        child1[e] = first;
+        child2[e] = second;
+        middle[e] = mid;
+        if (first >= 0) shortcutCount++;
+
+        addIncident(a, e);
+        addIncident(b, e);
+    }
+
+    private void addIncident(int v, int e) {
+        if (incidentSize[v] == incident[v].length) {
+            incident[v] = Arrays.copyOf(incident[v], incidentSize[v] * 2);
+        }
+        incident[v][incidentSize[v]++] = e;
+    }
+
+    // Edges point from the lower to the higher rank; core-core edges go both ways
+    private void buildUpwardGraph(int[] rank, int coreRank) {
+        int n = graph.nodeCount();
+        upOffsets = new int[n + 1];
+        int entries = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            if (rank[edgeA[e]] == coreRank && rank[edgeB[e]] == coreRank) {
+                upOffsets[edgeA[e] + 1]++;
+                upOffsets[edgeB[e] + 1]++;
+                entries += 2;
+            } else {
+                upOffsets[lower(e, rank) + 1]++;
+                entries++;
+            }
+        }
+        for (int v = 0; v < n; v++) upOffsets[v + 1] += upOffsets[v];
+
+        upTargets = new int[entries];
+        upEdges = new int[entries];
+        upCosts = new double[entries];
+        int[] fill = Arrays.copyOf(upOffsets, n);
+        for (int e = 0; e < edgeCount; e++) {
+            if (rank[edgeA[e]] == coreRank && rank[edgeB[e]] == coreRank) {
+                addUpward(fill, edgeA[e], edgeB[e], e);
+                addUpward(fill, edgeB[e], edgeA[e], e);
+            } else {
+                int from = lower(e, rank);
+                addUpward(fill, from, from == edgeA[e] ? edgeB[e] : edgeA[e], e);
+            }
+        }
+
+        edgeA = Arrays.copyOf(edgeA, edgeCount);
+        edgeB = Arrays.copyOf(edgeB, edgeCount);
+        child1 = Arrays.copyOf(child1, edgeCount);
+        child2 = Arrays.copyOf(child2, edgeCount);
+        middle = Arrays.copyOf(middle, edgeCount);
+        edgeCost = Arrays.copyOf(edgeCost, edgeCount);
+    }
+
+    private void addUpward(int[] fill, int from, int to, int e) {
+        int k = fill[from]++;
+        upTargets[k] = to;
+        upEdges[k] = e;
+        upCosts[k] = edgeCost[e];
+    }
+
+    private int lower(int e, int[] rank) {
+        return rank[edgeA[e]] < rank[edgeB[e]] ? edgeA[e] : edgeB[e];
+    }
+
+    // ================= QUERY =================
+
+    // Shortest path start -> end as node indices (empty if unreachable)
+    public int[] query(int start, int end) {
+        if (start == end) return new int[] { start };
+
+        // The pooled states store the upward edge used to reach each node as "previous"
+        SearchState forward = graph.acquireState();
+        SearchState backward = graph.acquireState();
+        try {
+            forward.reset(start, end);
+            backward.reset(end, start);
+            forward.set(start, 0, -1);
+            backward.set(end, 0, -1);
+
+            IndexedDaryHeap qf = forward.heap();
+            IndexedDaryHeap qb = backward.heap();
+            qf.insert(start, 0);
+            qb.insert(end, 0);
+
+            // 1. Upward searches through the contracted nodes; core nodes they reach are set aside
+            IntBuffer entriesF = new IntBuffer();
+            IntBuffer entriesB = new IntBuffer();
+            double[] best = { Double.POSITIVE_INFINITY };
+            int[] meet = { -1 };
+            boolean forwardTurn = true;
+            while (true) {
+                // A direction is finished once its smallest key cannot improve the best path
+                if (!qf.isEmpty() && qf.minKey() >= best[0]) qf.clear();
+                if (!qb.isEmpty() && qb.minKey() >= best[0]) qb.clear();
+                if (qf.isEmpty() && qb.isEmpty()) break;
+
+                if (qf.isEmpty()) forwardTurn = false;
+                else if (qb.isEmpty()) forwardTurn = true;
+
+                SearchState self = forwardTurn ? forward : backward;
+                SearchState other = forwardTurn ? backward : forward;
+                IndexedDaryHeap queue = forwardTurn ? qf : qb;
+                IntBuffer entries = forwardTurn ? entriesF : entriesB;
+                forwardTurn = !forwardTurn;
+
+                int u = queue.poll();
+                if (core[u]) {
+                    entries.add(u);
+                    continue;
+                }
+                double du = self.distance(u);
+                if (other.reached(u) && du + other.distance(u) < best[0]) {
+                    best[0] = du + other.distance(u);
+                    meet[0] = u;
+                }
+                if (stalled(self, u, du)) continue;
+
+                for (int k = upOffsets[u]; k < upOffsets[u + 1]; k++) {
+                    int v = upTargets[k];
+                    double d = du + upCosts[k];
+                    if (d < self.distance(v)) {
+                        self.set(v, d, upEdges[k]);
+                        queue.insertOrDecrease(v, d);
+                    }
+                }
+            }
+
+            // 2. Plain bidirectional Dijkstra inside the core, started from every entry point at once
+            for (int i = 0; i < entriesF.size; i++) qf.insert(entriesF.data[i], forward.distance(entriesF.data[i]));
+            for (int i = 0; i < entriesB.size; i++) qb.insert(entriesB.data[i], backward.distance(entriesB.data[i]));
+            while (!qf.isEmpty() && !qb.isEmpty()) {
+                if (qf.minKey() + qb.minKey() >= best[0]) break;
+
+                if (qf.size() <= qb.size()) expandCore(qf, forward, backward, best, meet);
+                else expandCore(qb, backward, forward, best, meet);
+            }
+
+            if (meet[0] < 0) return new int[0];
+            return unpackPath(forward, backward, meet[0]);
+        } finally {
+            forward.release();
+            backward.release();
+        }
+    }
+
+    // Stall-on-demand: u was reached more cheaply through a higher neighbor, so its
+    // label is not a shortest distance and expanding it cannot help
+    private boolean stalled(SearchState self, int u, double du) {
+        for (int k = upOffsets[u]; k < upOffsets[u + 1]; k++) {
+            if (self.distance(upTargets[k]) + upCosts[k] < du) return true;
+        }
+        return false;
+    }
+
+    // Settles one core node of this side; core nodes only have core-core edges
+    private void expandCore(IndexedDaryHeap queue, SearchState self, SearchState other,
+                            double[] best, int[] meet) {
+        int u = queue.poll();
+        double du = self.distance(u);
+        if (other.reached(u) && du + other.distance(u) < best[0]) {
+            best[0] = du + other.distance(u);
+            meet[0] = u;
+        }
+        for (int k = upOffsets[u]; k < upOffsets[u + 1]; k++) {
+            int v = upTargets[k];
+            double d = du + upCosts[k];
+            if (d < self.distance(v)) {
+                self.set(v, d, upEdges[k]);
+                queue.insertOrDecrease(v, d);
+            }
+            if (other.reached(v) && self.distance(v) + other.distance(v) < best[0]) {
+                best[0] = self.distance(v) + other.distance(v);
+                meet[0] = v;
+            }
+        }
+    }
+
+    private int[] unpackPath(SearchState forward, SearchState backward, int meet) {
+        // Upward edges start -> meet, collected backwards then unpacked in order
+        int[] chain = new int[16];
+        int[] from = new int[16];
+        int length = 0;
+        for (int v = meet; forward.previous(v) >= 0; ) {
+            int e = forward.previous(v);
+            int u = edgeA[e] == v ? edgeB[e] : edgeA[e];
+            if (length == chain.length) {
+                chain = Arrays.copyOf(chain, length * 2);
+                from = Arrays.copyOf(from, length * 2);
+            }
+            chain[length] = e;
+            from[length] = u;
+            length++;
+            v = u;
+        }
+
+        IntBuffer path = new IntBuffer();
+        path.add(forward.source());
+        for (int i = length - 1; i >= 0; i--) unpackEdge(chain[i], from[i], path);
+
+        // meet -> end follows the backward tree
+        for (int v = meet; backward.previous(v) >= 0; ) {
+            int e = backward.previous(v);
+            unpackEdge(e, v, path);
+            v = edgeA[e] == v ? edgeB[e] : edgeA[e];
+        }
+        return path.toArray();
+    }
+
+    // Appends the original nodes of edge e walked from "start" (excluding "start")
+    private void unpackEdge(int e, int start, IntBuffer out) {
+        IntBuffer stack = new IntBuffer();
+        stack.add(e);
+        stack.add(start);
+        while (stack.size > 0) {
+            int s = stack.data[--stack.size];
+            int edge = stack.data[--stack.size];
+
+            if (child1[edge] < 0) {
+                out.add(edgeA[edge] == s ? edgeB[edge] : edgeA[edge]);
+                continue;
+            }
+            // Shortcut a-b via middle = child1 (a-middle) + child2 (middle-b)
+            int first = edgeA[edge] == s ? child1[edge] : child2[edge];
+            int second = edgeA[edge] == s ? child2[edge] : child1[edge];
+            stack.add(second);
+            stack.add(middle[edge]);
+            stack.add(first);
+            stack.add(s);
+        }
+    }
+
+    private static final class IntBuffer {
+        int[] data = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
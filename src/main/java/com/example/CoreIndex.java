@@ -0,0 +1,95 @@
+package com.example;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Core numbers of the nodes of a {@link Graph}, kept by the graph itself.
+ *
+ * The index is built on first use with the linear-time decomposition on the
+ * snapshot. After that, single edge insertions are applied incrementally
+ * with the subcore method (Sarıyüce et al.): only nodes of core
+ * K = min(core(u), core(v)) that are connected to the endpoints through
+ * other core-K nodes can change, and each can only move up to K + 1.
+ * Deletions mark the index stale, as in {@link ComponentIndex}.
+ */
+final class CoreIndex {
+
+    private final Map<Node, Integer> core = new HashMap<>();
+    private boolean stale = true;
+
+    boolean isStale() {
+        return stale;
+    }
+
+    void markStale() {
+        stale = true;
+        core.clear();
+    }
+
+    void rebuild(Graph g) {
+        CsrGraph csr = g.snapshot();
+        int[] cores = GraphAlgorithms.coreNumbers(csr);
+        core.clear();
+        for (int v = 0; v < cores.length; v++) core.put(csr.node(v), cores[v]);
+        stale = false;
+    }
+
+    void add(Node n) {
+        if (!stale) core.putIfAbsent(n, 0);
+    }
+
+    int coreOf(Node n) {
+        return core.getOrDefault(n, 0);
+    }
+
+    // Call after the edge u-v has been added to g
+    void insertEdge(Graph g, Node u, Node v) {
+        if (stale) return;
+        int k = Math.min(coreOf(u), coreOf(v));
+
+        // The K-subcore reachable from the endpoint(s) with core K
+        Set<Node> candidates = new HashSet<>();
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        for (Node root : new Node[] { u, v }) {
+            if (coreOf(root) == k && candidates.add(root)) queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            Node w = queue.poll();
+            for (Edge e : g.getEdges(w)) {
+                if (coreOf(e.target) == k && candidates.add(e.target)) queue.add(e.target);
+            }
+        }
+
+        // Neighbors that could support each candidate in a (K + 1)-core
+        Map<Node, Integer> support = new HashMap<>();
+        for (Node w : candidates) {
+            int count = 0;
+            for (Edge e : g.getEdges(w)) {
+                if (coreOf(e.target) >= k) count++;
+            }
+            support.put(w, count);
+            if (count <= k) queue.add(w);
+        }
+
+        // Peel candidates that cannot reach K + 1
+        Set<Node> evicted = new HashSet<>();
+        while (!queue.isEmpty()) {
+            Node w = queue.poll();
+            if (!evicted.add(w)) continue;
+            for (Edge e : g.getEdges(w)) {
+                Node x = e.target;
+                if (!candidates.contains(x) || evicted.contains(x)) continue;
+                int left = support.merge(x, -1, Integer::sum);
+                if (left == k) queue.add(x);
+            }
+        }
+
+        for (Node w : candidates) {
+            if (!evicted.contains(w)) core.put(w, k + 1);
+        }
+    }
+}
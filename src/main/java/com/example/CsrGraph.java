@@ -0,0 +1,159 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of a {@link Graph}.
+ *
+ * Nodes get dense indices 0..n-1. The neighbors of node v are
+ * targets[offsets[v] .. offsets[v + 1] - 1] with matching costs, so an edge
+ * costs 12 bytes instead of two Edge objects. The id/index mapping is kept
+ * on the side to translate results back to {@link Node}s.
+ */
+public final class CsrGraph {
+
+    public final int[] offsets;
+    public final int[] targets;
+    public final double[] costs;
+
+    private final Node[] nodes;
+    private final Map<Integer, Integer> indexById;
+
+    private final SearchStatePool statePool = new SearchStatePool(this);
+    private LandmarkHeuristic landmarks;
+    // Own lock and volatile: the UI checks for it (and uses the landmarks)
+    // while a background thread builds it
+    private volatile ContractionHierarchy hierarchy;
+    private final Object hierarchyLock = new Object();
+
+    private CsrGraph(Node[] nodes, Map<Integer, Integer> indexById,
+                     int[] offsets, int[] targets, double[] costs) {
+        this.nodes = nodes;
+        this.indexById = indexById;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.costs = costs;
+    }
+
+    // Builds the snapshot from the adjacency index of the graph (O(V + E))
+    public static CsrGraph of(Graph graph) {
+        int n = graph.nodes.size();
+        Node[] nodes = graph.nodes.toArray(new Node[0]);
+        Map<Integer, Integer> indexById = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) indexById.put(nodes[i].id, i);
+
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) offsets[i + 1] = offsets[i] + graph.getDegree(nodes[i]);
+
+        int[] targets = new int[offsets[n]];
+        double[] costs = new double[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int k = offsets[i];
+            for (Edge e : graph.getEdges(nodes[i])) {
+                targets[k] = indexById.get(e.target.id);
+                costs[k] = e.cost;
+                k++;
+            }
+        }
+        return new CsrGraph(nodes, indexById, offsets, targets, costs);
+    }
+
+    // Same nodes and indexing, only the entries k with keep[k] set (in order)
+    CsrGraph subgraph(boolean[] keep) {
+        int n = nodes.length;
+        int[] subOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int degree = 0;
+            for (int k = offsets[v]; k < offsets[v + 1]; k++) if (keep[k]) degree++;
+            subOffsets[v + 1] = subOffsets[v] + degree;
+        }
+        int[] subTargets = new int[subOffsets[n]];
+        double[] subCosts = new double[subTargets.length];
+        int i = 0;
+        for (int k = 0; k < targets.length; k++) {
+            if (!keep[k]) continue;
+            subTargets[i] = targets[k];
+            subCosts[i++] = costs[k];
+        }
+        return new CsrGraph(nodes, indexById, subOffsets, subTargets, subCosts);
+    }
+
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    // Number of directed entries (each undirected edge is stored twice)
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    public Node node(int index) {
+        return nodes[index];
+    }
+
+    public int idOf(int index) {
+        return nodes[index].id;
+    }
+
+    // -1 if the id is not part of this snapshot
+    public int indexOfId(int id) {
+        Integer idx = indexById.get(id);
+        return idx == null ? -1 : idx;
+    }
+
+    public int indexOf(Node n) {
+        int idx = indexOfId(n.id);
+        return idx >= 0 && nodes[idx] == n ? idx : -1;
+    }
+
+    // Per-query distance/predecessor state, pooled per snapshot
+    public SearchState acquireState() {
+        return statePool.acquire();
+    }
+
+    // ALT lower bounds for A*, computed on first use and shared by all queries
+    public synchronized LandmarkHeuristic landmarks() {
+        if (landmarks == null) {
+            landmarks = LandmarkHeuristic.build(this, LandmarkHeuristic.DEFAULT_LANDMARKS);
+        }
+        return landmarks;
+    }
+
+    public synchronized boolean hasLandmarks() {
+        return landmarks != null;
+    }
+
+    // Contraction hierarchy for repeated point-to-point queries, built on first use
+    public ContractionHierarchy contractionHierarchy() {
+        return contractionHierarchy(p -> { }, () -> false);
+    }
+
+    // Same, with progress / cancellation for callers that build it in the background
+    public ContractionHierarchy contractionHierarchy(DoubleConsumer progress, BooleanSupplier cancelled) {
+        ContractionHierarchy ch = hierarchy;
+        if (ch != null) return ch;
+        synchronized (hierarchyLock) {
+            if (hierarchy == null) hierarchy = ContractionHierarchy.build(this, progress, cancelled);
+            return hierarchy;
+        }
+    }
+
+    public boolean hasContractionHierarchy() {
+        return hierarchy != null;
+    }
+
+    public List<Node> toNodes(int[] indices) {
+        List<Node> list = new ArrayList<>(indices.length);
+        for (int i : indices) list.add(nodes[i]);
+        return list;
+    }
+}
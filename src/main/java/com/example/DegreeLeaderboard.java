@@ -0,0 +1,90 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nodes kept sorted by degree (highest first) under edge insertions and
+ * deletions, maintained by {@link Graph}.
+ *
+ * The order array is split into one bucket per degree, and above[d] counts
+ * the nodes with degree greater than d, so bucket d starts at above[d]. A
+ * degree change swaps the node to the edge of its bucket and moves a single
+ * boundary, which is O(1). The top k are simply the first k entries.
+ */
+final class DegreeLeaderboard {
+
+    private final List<Node> order = new ArrayList<>();
+    private final Map<Node, Integer> position = new HashMap<>();
+    private int[] degree = new int[16]; // degree per position in order
+    private int[] above = new int[16];
+
+    void add(Node n) {
+        if (position.containsKey(n)) return;
+        int p = order.size();
+        if (p == degree.length) degree = Arrays.copyOf(degree, p * 2);
+        order.add(n);
+        position.put(n, p);
+        degree[p] = 0;
+    }
+
+    void increment(Node n) {
+        Integer p = position.get(n);
+        if (p == null) return;
+        int d = degree[p];
+        if (d + 1 >= above.length) above = Arrays.copyOf(above, Math.max(above.length * 2, d + 2));
+
+        // Swap to the front of bucket d, which then becomes the back of bucket d + 1
+        swap(p, above[d]);
+        degree[above[d]] = d + 1;
+        above[d]++;
+    }
+
+    void decrement(Node n) {
+        Integer p = position.get(n);
+        if (p == null || degree[p] == 0) return;
+        int d = degree[p];
+
+        // Swap to the back of bucket d, which then becomes the front of bucket d - 1
+        int last = above[d - 1] - 1;
+        swap(p, last);
+        degree[last] = d - 1;
+        above[d - 1]--;
+    }
+
+    void remove(Node n) {
+        Integer p = position.get(n);
+        if (p == null) return;
+        while (degree[position.get(n)] > 0) decrement(n);
+
+        // Degree 0 is the last bucket, so swapping with the tail keeps the order
+        int last = order.size() - 1;
+        swap(position.get(n), last);
+        order.remove(last);
+        position.remove(n);
+    }
+
+    void clear() {
+        order.clear();
+        position.clear();
+        Arrays.fill(above, 0);
+    }
+
+    // The k best connected nodes, highest degree first
+    List<Node> top(int k) {
+        return new ArrayList<>(order.subList(0, Math.min(k, order.size())));
+    }
+
+    private void swap(int i, int j) {
+        if (i == j) return;
+        Node a = order.get(i), b = order.get(j);
+        order.set(i, b);
+        order.set(j, a);
+        position.put(a, j);
+        position.put(b, i);
+        int t = degree[i]; degree[i] = degree[j]; degree[j] = t;
+    }
+}
@@ -9,6 +9,10 @@ public class Edge {
     // Цената (тежестта) на връзката
     public double cost;
 
+    // Valid at all times (added by Graph.addEdge(s, t)); set on both directions.
+    // Timed intervals are kept by the graph's TemporalEdgeStore
+    boolean timeless;
+
     public Edge(Node source, Node target) {
         this.source = source;
         this.target = target;
@@ -16,10 +20,15 @@ public class Edge {
         this.cost = calculateCost(source, target);
     }
 
+    // Пресмятаме отново след редакция на възлите
+    public void recalculateCost() {
+        this.cost = calculateCost(source, target);
+    }
+
     /**
      * Weight = 1 / (1 + sqrt((Ai-Aj)^2 + (Ei-Ej)^2 + (Bi-Bj)^2))
      */
-    private double calculateCost(Node a, Node b) {
+    static double calculateCost(Node a, Node b) {
         // 1. Разликите на квадрат
         double diffActivity = Math.pow(a.activity - b.activity, 2);
         double diffInteraction = Math.pow(a.interaction - b.interaction, 2);
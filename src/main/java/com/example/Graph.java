@@ -6,49 +6,297 @@ public class Graph {
     public List<Node> nodes = new ArrayList<>();
  public List<Edge> edges = new ArrayList<>();
 
+    // Adjacency index: outgoing edges per node, kept in sync with the edges list
+    private final Map<Node, List<Edge>> adjacency = new HashMap<>();
+
+    // id -> Node lookup and packed (min id, max id) keys of the undirected edges
+    private final Map<Integer, Node> nodeIndex = new HashMap<>();
+    private final Set<Long> edgeKeys = new HashSet<>();
+
+    // Cached CSR snapshot, dropped on every structural change
+    private CsrGraph snapshot;
+    // Bumped on every change, including attribute edits; keys cached results
+    private long version;
+
+    // Connected components, merged on insertion and rebuilt lazily after splits
+    private final ComponentIndex components = new ComponentIndex();
+
+    // Nodes ordered by degree, updated in O(1) per edge change
+    private final DegreeLeaderboard leaderboard = new DegreeLeaderboard();
+
+    // Core numbers, built on first use and updated on single edge insertions
+    private final CoreIndex cores = new CoreIndex();
+
+    // k-d tree over (activity, interaction, projects), built on first similarity query
+    private final AttributeIndex attributes = new AttributeIndex();
+
+    // Validity intervals of the edges, for "as of" snapshots
+    private final TemporalEdgeStore temporal = new TemporalEdgeStore();
+
     public void addNode(Node n) {
         nodes.add(n);
+        nodeIndex.put(n.id, n);
+        adjacency.putIfAbsent(n, new ArrayList<>());
+        components.add(n);
+        leaderboard.add(n);
+        cores.add(n);
+        attributes.add(this, n);
+        invalidate();
     }
 
+    // Valid at all times, even if the pair already had timed intervals
     public void addEdge(Node s, Node t) {
-        for(Edge e : edges) {
-            if((e.source == s && e.target == t) || (e.source == t && e.target == s)) {
-                return; 
-            }
+        if (connect(s, t, true)) return;
+        // Existing pair: flag it as timeless unless it already is
+        if (isTimeless(s, t)) return;
+        for (Edge e : adjacencyOf(s)) if (e.target == t) e.timeless = true;
+        for (Edge e : adjacencyOf(t)) if (e.target == s) e.timeless = true;
+        invalidate();
+    }
+
+    // Edge valid during [since, until); the same pair may get several intervals.
+    // The live graph holds every pair that was ever connected.
+    public void addEdge(Node s, Node t, long since, long until) {
+        if (since >= until) throw new IllegalArgumentException("Empty interval: [" + since + ", " + until + ")");
+        if (since == TemporalEdgeStore.MIN_TIME && until == TemporalEdgeStore.MAX_TIME) {
+            addEdge(s, t);
+            return;
         }
-        edges.add(new Edge(s, t));
-        edges.add(new Edge(t, s));
+        connect(s, t, false);
+        temporal.add(s, t, since, until);
+    }
+
+    // Adds s-t to the live graph unless it is already there; true if it was added
+    private boolean connect(Node s, Node t, boolean timeless) {
+        if (!edgeKeys.add(edgeKey(s, t))) return false;
+
+        Edge st = new Edge(s, t);
+        Edge ts = new Edge(t, s);
+        st.timeless = timeless;
+        ts.timeless = timeless;
+        edges.add(st);
+        edges.add(ts);
+        adjacencyOf(s).add(st);
+        adjacencyOf(t).add(ts);
+        components.union(s, t);
+        leaderboard.increment(s);
+        leaderboard.increment(t);
+        cores.insertEdge(this, s, t);
+        invalidate();
+        return true;
     }
 
     public void removeNode(Node n) {
+        List<Edge> out = adjacency.remove(n);
+        if (out == null || out.size() <= 1) components.removeLeaf(n);
+        else components.markStale();
+        if (out != null) {
+            for (Edge e : out) {
+                edgeKeys.remove(edgeKey(n, e.target));
+                leaderboard.decrement(e.target);
+                List<Edge> back = adjacency.get(e.target);
+                if (back != null) back.removeIf(b -> b.target == n);
+            }
+        }
         edges.removeIf(e -> e.source == n || e.target == n);
         nodes.remove(n);
+        nodeIndex.remove(n.id, n);
+        leaderboard.remove(n);
+        cores.markStale();
+        attributes.remove(this, n);
+        temporal.removeNode(n);
+        invalidate();
     }
 
     public void removeEdge(Node s, Node t) {
+        if (!edgeKeys.remove(edgeKey(s, t))) return;
+
+        adjacencyOf(s).removeIf(e -> e.target == t);
+        adjacencyOf(t).removeIf(e -> e.target == s);
         edges.removeIf(e -> (e.source == s && e.target == t) || (e.source == t && e.target == s));
+        components.markStale();
+        leaderboard.decrement(s);
+        leaderboard.decrement(t);
+        cores.markStale();
+        temporal.removePair(s, t);
+        invalidate();
     }
 
-    public Node getNodeById(int id) {
-        for (Node n : nodes) {
-            if (n.id == id) return n;
+    // Removes every node and edge (used before loading / generating new data)
+    public void clear() {
+        nodes.clear();
+        edges.clear();
+        adjacency.clear();
+        nodeIndex.clear();
+        edgeKeys.clear();
+        components.clear();
+        leaderboard.clear();
+        cores.markStale();
+        attributes.markStale();
+        temporal.clear();
+        invalidate();
+    }
+
+    // Immutable CSR view for read-heavy analysis; rebuilt lazily after mutations
+    public synchronized CsrGraph snapshot() {
+        if (snapshot == null) snapshot = CsrGraph.of(this);
+        return snapshot;
+    }
+
+    private synchronized void invalidate() {
+        snapshot = null;
+        version++;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    // Call after editing a node's attributes: edge costs depend on them
+    public void updateNode(Node n) {
+        for (Edge e : getEdges(n)) {
+            e.recalculateCost();
+            for (Edge back : getEdges(e.target)) {
+                if (back.target == n) back.recalculateCost();
+            }
         }
-        return null;
+        attributes.add(this, n);
+        invalidate();
+    }
+
+    // --- TEMPORAL VIEWS ---
+
+    // CSR view of the edges valid at `time`, indexed like snapshot(); built per call
+    public CsrGraph snapshotAt(long time) {
+        return temporal.snapshotAt(this, time);
+    }
+
+    // CSR view of the edges valid at some point of [from, to)
+    public CsrGraph snapshotBetween(long from, long to) {
+        return temporal.window(this, from, to);
+    }
+
+    public List<Node> getNeighborsAt(Node n, long time) {
+        return temporal.neighborsAt(this, n, time);
+    }
+
+    public List<TemporalEdgeStore.Interval> getEdgeIntervals(Node s, Node t) {
+        return temporal.intervalsOf(this, s, t);
+    }
+
+    // Every interval of every edge, timeless ones first
+    public List<TemporalEdgeStore.Interval> getAllEdgeIntervals() {
+        return temporal.allIntervals(this);
+    }
+
+    // --- CONNECTED COMPONENTS ---
+
+    public int getComponentCount() {
+        return components().count();
+    }
+
+    public int getComponentSize(Node n) {
+        return components().sizeOf(n);
+    }
+
+    public boolean inSameComponent(Node a, Node b) {
+        ComponentIndex index = components();
+        int ra = index.rootOf(a);
+        return ra >= 0 && ra == index.rootOf(b);
+    }
+
+    /**
+     * Component number (1..k) per node, in the order of the nodes list;
+     * numbers are assigned by first appearance.
+     */
+    public int[] getComponentLabels() {
+        ComponentIndex index = components();
+        int[] labelOfRoot = new int[index.capacity()];
+        int[] labels = new int[nodes.size()];
+        int next = 0;
+        for (int i = 0; i < labels.length; i++) {
+            int root = index.rootOf(nodes.get(i));
+            if (labelOfRoot[root] == 0) labelOfRoot[root] = ++next;
+            labels[i] = labelOfRoot[root];
+        }
+        return labels;
+    }
+
+    private ComponentIndex components() {
+        if (components.isStale()) components.rebuild(this);
+        return components;
+    }
+
+    public Node getNodeById(int id) {
+        return nodeIndex.get(id);
+    }
+
+    // --- NEIGHBOR ITERATION ---
+
+    // Outgoing edges of n (read-only view, no copy)
+    public List<Edge> getEdges(Node n) {
+        List<Edge> out = adjacency.get(n);
+        return out == null ? Collections.emptyList() : Collections.unmodifiableList(out);
+    }
+
+    public List<Node> getNeighbors(Node n) {
+        List<Edge> out = getEdges(n);
+        List<Node> neighbors = new ArrayList<>(out.size());
+        for (Edge e : out) neighbors.add(e.target);
+        return neighbors;
+    }
+
+    private List<Edge> adjacencyOf(Node n) {
+        return adjacency.computeIfAbsent(n, k -> new ArrayList<>());
     }
 
     // Помощни методи, които са структурни (остават тук)
     public int getDegree(Node n) {
-        int count = 0;
-        for (Edge e : edges) {
-            if (e.source == n) count++;
-        }
-        return count;
+        return getEdges(n).size();
+    }
+
+    // k-core membership: the largest k such that n is in a subgraph of minimum degree k
+    public int getCoreNumber(Node n) {
+        if (cores.isStale()) cores.rebuild(this);
+        return cores.coreOf(n);
+    }
+
+    // The k highest-degree nodes, best first, without sorting the graph
+    public List<Node> getTopByDegree(int k) {
+        return leaderboard.top(k);
+    }
+
+    // --- ATTRIBUTE SIMILARITY ---
+
+    // The k nodes with the closest (activity, interaction, projects), nearest first, n excluded
+    public List<Node> getMostSimilar(Node n, int k) {
+        return attributes().nearest(AttributeIndex.pointOf(n), k, n);
+    }
+
+    // Every other node within attribute distance `radius` of n, nearest first
+    public List<Node> getSimilarWithin(Node n, double radius) {
+        return attributes().within(AttributeIndex.pointOf(n), radius, n);
+    }
+
+    private AttributeIndex attributes() {
+        if (attributes.isStale()) attributes.rebuild(this);
+        return attributes;
     }
 
     public boolean areConnected(Node a, Node b) {
-        for (Edge e : edges) {
-            if ((e.source == a && e.target == b) || (e.source == b && e.target == a)) return true;
-        }
+        return edgeKeys.contains(edgeKey(a, b));
+    }
+
+    // Whether s-t was added by addEdge(s, t), i.e. is valid at all times
+    boolean isTimeless(Node s, Node t) {
+        for (Edge e : getEdges(s)) if (e.target == t) return e.timeless;
         return false;
     }
-} 
\ No newline at end of file
+
+    // Direction-independent key: smaller id in the high 32 bits
+    static long edgeKey(Node a, Node b) {
+        int lo = Math.min(a.id, b.id);
+        int hi = Math.max(a.id, b.id);
+        return ((long) lo << 32) | (hi & 0xFFFFFFFFL);
+    }
+}
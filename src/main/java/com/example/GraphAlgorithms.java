@@ -1,97 +1,62 @@
 package com.example;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
 public class GraphAlgorithms {
 
     // --- 1. DIJKSTRA ---
+    // Runs on the graph snapshot with its own per-query state, so nothing is written into Node
     public static List<Node> runDijkstra(Graph graph, Node start, Node end) {
-
-        for (Node n : graph.nodes) {
-            n.minDistance = Double.MAX_VALUE;
-            n.previous = null;
-        }
-        start.minDistance = 0;
-
-        PriorityQueue<Node> queue =
-                new PriorityQueue<>(Comparator.comparingDouble(n -> n.minDistance));
-        queue.add(start);
-
-        while (!queue.isEmpty()) {
-            Node u = queue.poll();
-            if (u == end) break;
-
-            for (Edge e : graph.edges) {
-                if (e.source != u) continue;
-
-                Node v = e.target;
-                double dist = u.minDistance + e.cost;
-
-                if (dist < v.minDistance) {
-                    queue.remove(v);
-                    v.minDistance = dist;
-                    v.previous = u;
-                    queue.add(v);
-                }
-            }
-        }
-        return reconstructPath(start, end);
+        CsrGraph g = graph.snapshot();
+        int s = g.indexOf(start), t = g.indexOf(end);
+        if (s < 0 || t < 0) return new ArrayList<>();
+        return g.toNodes(runDijkstra(g, s, t));
     }
 
     // --- 2. A* ---
     public static List<Node> runAStar(Graph graph, Node start, Node end) {
+        CsrGraph g = graph.snapshot();
+        int s = g.indexOf(start), t = g.indexOf(end);
+        if (s < 0 || t < 0) return new ArrayList<>();
+        return g.toNodes(runAStar(g, s, t));
+    }
 
-        for (Node n : graph.nodes) {
-            n.minDistance = Double.MAX_VALUE;
-            n.previous = null;
-        }
-        start.minDistance = 0;
-
-        PriorityQueue<Node> open =
-                new PriorityQueue<>(Comparator.comparingDouble(
-                        n -> n.minDistance + heuristic(n, end)));
-
-        open.add(start);
-
-        while (!open.isEmpty()) {
-            Node u = open.poll();
-            if (u == end) break;
-
-            for (Edge e : graph.edges) {
-                if (e.source != u) continue;
-
-                Node v = e.target;
-                double g = u.minDistance + e.cost;
-
-                if (g < v.minDistance) {
-                    open.remove(v);
-                    v.minDistance = g;
-                    v.previous = u;
-                    open.add(v);
-                }
-            }
-        }
-        return reconstructPath(start, end);
+    // --- 2b. BIDIRECTIONAL DIJKSTRA ---
+    // Point-to-point: searches from both ends and stops when the frontiers meet
+    public static List<Node> runBidirectionalDijkstra(Graph graph, Node start, Node end) {
+        CsrGraph g = graph.snapshot();
+        int s = g.indexOf(start), t = g.indexOf(end);
+        if (s < 0 || t < 0) return new ArrayList<>();
+        return g.toNodes(runBidirectionalDijkstra(g, s, t));
     }
 
-    private static double heuristic(Node a, Node b) {
-        return Math.hypot(a.x - b.x, a.y - b.y);
+    // --- 2c. CONTRACTION HIERARCHY ---
+    // Preprocessing is cached on the snapshot and redone after the graph changes
+    public static List<Node> runContractionHierarchy(Graph graph, Node start, Node end) {
+        CsrGraph g = graph.snapshot();
+        int s = g.indexOf(start), t = g.indexOf(end);
+        if (s < 0 || t < 0) return new ArrayList<>();
+        return g.toNodes(g.contractionHierarchy().query(s, t));
     }
 
     // --- 3. BFS ---
     public static List<Node> runBFS(Graph graph, Node start) {
 
         List<Node> visited = new ArrayList<>();
-        Queue<Node> queue = new LinkedList<>();
+        Set<Node> seen = new HashSet<>();
+        Queue<Node> queue = new ArrayDeque<>();
 
         visited.add(start);
+        seen.add(start);
         queue.add(start);
 
         while (!queue.isEmpty()) {
             Node u = queue.poll();
 
-            for (Edge e : graph.edges) {
-                if (e.source == u && !visited.contains(e.target)) {
+            for (Edge e : graph.getEdges(u)) {
+                if (seen.add(e.target)) {
                     visited.add(e.target);
                     queue.add(e.target);
                 }
@@ -104,17 +69,18 @@ public class GraphAlgorithms {
     public static List<Node> runDFS(Graph graph, Node start) {
 
         List<Node> visited = new ArrayList<>();
+        Set<Node> seen = new HashSet<>();
         Stack<Node> stack = new Stack<>();
         stack.push(start);
 
         while (!stack.isEmpty()) {
             Node u = stack.pop();
 
-            if (!visited.contains(u)) {
+            if (seen.add(u)) {
                 visited.add(u);
 
-                for (Edge e : graph.edges) {
-                    if (e.source == u && !visited.contains(e.target)) {
+                for (Edge e : graph.getEdges(u)) {
+                    if (!seen.contains(e.target)) {
                         stack.push(e.target);
                     }
                 }
@@ -123,115 +89,506 @@ public class GraphAlgorithms {
         return visited;
     }
 
+    // --- 4b. LAZY REACHABILITY ---
+    // Traversal stops at the first match instead of collecting every reachable node
+    public static boolean isReachableBFS(Graph graph, Node start, Node target) {
+        return Traversals.bfs(graph, start).anyMatch(n -> n == target);
+    }
+
+    public static boolean isReachableDFS(Graph graph, Node start, Node target) {
+        return Traversals.dfs(graph, start).anyMatch(n -> n == target);
+    }
+
     // --- 5. CONNECTED COMPONENTS ---
     public static int countConnectedComponents(Graph graph) {
-        List<Node> visited = new ArrayList<>();
-        int count = 0;
+        return graph.getComponentCount();
+    }
+
+    // --- 6. GRAPH COLORING ---
+    // Both return the number of colors used
+    public static int runColoring(Graph graph) {
+        CsrGraph g = graph.snapshot();
+        int[] colors = greedyColoring(g);
+        applyColors(g, colors);
+        return colorCount(colors);
+    }
+
+    public static int runParallelColoring(Graph graph) {
+        CsrGraph g = graph.snapshot();
+        int[] colors = ParallelColoring.jonesPlassmann(g);
+        applyColors(g, colors);
+        return colorCount(colors);
+    }
 
+    // --- 6b. K-CORE ---
+    // Colors every node by its core number (0 keeps the default color); returns the max core
+    public static int runKCore(Graph graph) {
+        int max = 0;
         for (Node n : graph.nodes) {
-            if (!visited.contains(n)) {
-                count++;
-                visited.addAll(runBFS(graph, n));
+            n.colorIndex = graph.getCoreNumber(n);
+            max = Math.max(max, n.colorIndex);
+        }
+        return max;
+    }
+
+    // --- 6c. SPANNING TREE ---
+    // Borůvka; maximum = strongest ties (largest total cost)
+    public static SpanningForest.Result runSpanningTree(CsrGraph g, boolean maximum) {
+        return maximum ? SpanningForest.maximum(g) : SpanningForest.minimum(g);
+    }
+
+    // The tree edges as Edge objects of graph (g must be its current snapshot)
+    public static List<Edge> treeEdges(Graph graph, CsrGraph g, SpanningForest.Result tree) {
+        List<Edge> edges = new ArrayList<>(tree.entries.length);
+        for (int i = 0; i < tree.entries.length; i++) {
+            int source = tree.sources[i];
+            edges.add(graph.getEdges(g.node(source)).get(tree.entries[i] - g.offsets[source]));
+        }
+        return edges;
+    }
+
+    // --- 7. CENTRALITY ---
+    public static List<Node> getTopCentrality(Graph graph, int k) {
+        return graph.getTopByDegree(k);
+    }
+
+    public static double[] runBetweenness(Graph graph, boolean sampled) {
+        CsrGraph g = graph.snapshot();
+        return sampled
+                ? BetweennessCentrality.sampled(g, BetweennessCentrality.DEFAULT_PIVOTS, 42)
+                : BetweennessCentrality.exact(g);
+    }
+
+    // Power iteration on cost-weighted edges; `previous` (may be null) seeds the vector
+    public static PowerIterationCentrality.Result runPageRank(Graph graph,
+                                                              PowerIterationCentrality.Result previous) {
+        return PowerIterationCentrality.pageRank(graph.snapshot(), true, previous);
+    }
+
+    public static PowerIterationCentrality.Result runEigenvector(Graph graph,
+                                                                 PowerIterationCentrality.Result previous) {
+        return PowerIterationCentrality.eigenvector(graph.snapshot(), true, previous);
+    }
+
+    // Indices of the k highest scores, best first (bounded min-heap, O(V log k))
+    public static int[] topK(double[] scores, int k) {
+        k = Math.min(k, scores.length);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1,
+                (a, b) -> Double.compare(scores[a], scores[b]));
+        for (int v = 0; v < scores.length; v++) {
+            if (heap.size() < k) heap.add(v);
+            else if (scores[v] > scores[heap.peek()]) {
+                heap.poll();
+                heap.add(v);
             }
         }
-        return count;
+        int[] top = new int[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) top[i] = heap.poll();
+        return top;
     }
 
-    // --- 6. WELSH–POWELL ---
-    public static void runColoring(Graph graph) {
+    // === COMPATIBILITY METHOD (Main.java için) ===
+    public static int countAndColorComponents(Graph graph) {
+        int[] labels = graph.getComponentLabels();
 
-        List<Node> sorted = new ArrayList<>(graph.nodes);
-        sorted.sort((a, b) -> graph.getDegree(b) - graph.getDegree(a));
+        // Bileşen numarasına göre renk (12 renkten sonra başa dön)
+        for (int i = 0; i < labels.length; i++) {
+            graph.nodes.get(i).colorIndex = (labels[i] - 1) % 12 + 1;
+        }
+        return graph.getComponentCount();
+    }
 
-        for (Node n : graph.nodes) n.colorIndex = 0;
+    // Louvain communities, colored the same way as the islands above
+    public static LouvainCommunities.Result detectAndColorCommunities(Graph graph) {
+        CsrGraph g = graph.snapshot();
+        LouvainCommunities.Result result = LouvainCommunities.detect(g);
+        int[] colors = new int[result.labels.length];
+        for (int v = 0; v < colors.length; v++) colors[v] = (result.labels[v] - 1) % 12 + 1;
+        applyColors(g, colors);
+        return result;
+    }
 
-        int color = 1;
-        for (Node n : sorted) {
-            if (n.colorIndex == 0) {
-                n.colorIndex = color;
+    // === CSR SNAPSHOT OVERLOADS ===
+    // Same algorithms on primitive arrays (dense indices instead of Node/Edge objects).
 
-                for (Node other : sorted) {
-                    if (other.colorIndex == 0 && !graph.areConnected(n, other)) {
-                        boolean safe = true;
-                        for (Node x : sorted) {
-                            if (x.colorIndex == color && graph.areConnected(x, other)) {
-                                safe = false;
-                                break;
-                            }
-                        }
-                        if (safe) other.colorIndex = color;
-                    }
+    public static int[] runDijkstra(CsrGraph g, int start, int end) {
+        SearchState state = g.acquireState();
+        try {
+            return runDijkstra(g, start, end, state).pathTo(end);
+        } finally {
+            state.release();
+        }
+    }
+
+    // Fills state with a search from start; end = -1 computes the full shortest path tree
+    public static SearchState runDijkstra(CsrGraph g, int start, int end, SearchState state) {
+        state.reset(start, end);
+        state.set(start, 0, -1);
+
+        IndexedDaryHeap queue = state.heap();
+        queue.insert(start, 0);
+
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            if (u == end) break;
+
+            double du = state.distance(u);
+            for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+                int v = g.targets[k];
+                double d = du + g.costs[k];
+                if (d < state.distance(v)) {
+                    state.set(v, d, u);
+                    queue.insertOrDecrease(v, d);
                 }
-                color++;
             }
         }
+        return state;
     }
 
-    // --- 7. CENTRALITY ---
-    public static List<Node> getTopCentrality(Graph graph) {
-        List<Node> list = new ArrayList<>(graph.nodes);
-        list.sort((a, b) -> graph.getDegree(b) - graph.getDegree(a));
-        return list;
+    public static int[] runAStar(CsrGraph g, int start, int end) {
+        SearchState state = g.acquireState();
+        try {
+            return runAStar(g, start, end, state).pathTo(end);
+        } finally {
+            state.release();
+        }
     }
 
-    private static List<Node> reconstructPath(Node start, Node end) {
-        List<Node> path = new ArrayList<>();
-        for (Node n = end; n != null; n = n.previous) path.add(n);
-        Collections.reverse(path);
-        if (!path.isEmpty() && path.get(0) != start) return new ArrayList<>();
-        return path;
+    // Heuristic: landmark (ALT) lower bounds, admissible for the edge costs
+    public static SearchState runAStar(CsrGraph g, int start, int end, SearchState state) {
+        return runAStar(g, start, end, state, g.landmarks());
     }
 
-    // === COMPATIBILITY METHOD (Main.java için) ===
-   public static int countAndColorComponents(Graph graph) {
+    public static SearchState runAStar(CsrGraph g, int start, int end, SearchState state,
+                                       LandmarkHeuristic heuristic) {
+        state.reset(start, end);
+        state.set(start, 0, -1);
+
+        IndexedDaryHeap open = state.heap();
+        open.insert(start, heuristic.estimate(start, end));
+
+        while (!open.isEmpty()) {
+            int u = open.poll();
+            if (u == end) break;
 
-    // Her şeyi önce sıfırla
-    for (Node n : graph.nodes) {
-        n.colorIndex = 0;
+            double du = state.distance(u);
+            for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+                int v = g.targets[k];
+                double d = du + g.costs[k];
+                if (d < state.distance(v)) {
+                    state.set(v, d, u);
+                    open.insertOrDecrease(v, d + heuristic.estimate(v, end));
+                }
+            }
+        }
+        return state;
     }
 
-    Set<Node> visited = new HashSet<>();
-    int components = 0;
-    int color = 1;
+    public static int[] runBidirectionalDijkstra(CsrGraph g, int start, int end) {
+        if (start == end) return new int[] { start };
+
+        SearchState forward = g.acquireState();
+        SearchState backward = g.acquireState();
+        try {
+            forward.reset(start, end);
+            backward.reset(end, start);
+            forward.set(start, 0, -1);
+            backward.set(end, 0, -1);
+
+            IndexedDaryHeap qf = forward.heap();
+            IndexedDaryHeap qb = backward.heap();
+            qf.insert(start, 0);
+            qb.insert(end, 0);
+
+            // Edges are stored in both directions, so the backward search uses the same arrays
+            double[] best = { Double.POSITIVE_INFINITY };
+            int[] meet = { -1 };
+            while (!qf.isEmpty() && !qb.isEmpty()) {
+                // Standard stopping criterion: no shorter s-t path can still be found
+                if (qf.minKey() + qb.minKey() >= best[0]) break;
+
+                if (qf.size() <= qb.size()) expandFrontier(g, qf, forward, backward, best, meet);
+                else expandFrontier(g, qb, backward, forward, best, meet);
+            }
+            if (meet[0] < 0) return new int[0];
+
+            // start..meet from the forward tree, then meet..end from the backward tree
+            int[] head = forward.pathTo(meet[0]);
+            int[] tail = backward.pathTo(meet[0]);
+            int[] path = Arrays.copyOf(head, head.length + tail.length - 1);
+            for (int i = 0; i < tail.length - 1; i++) path[head.length + i] = tail[tail.length - 2 - i];
+            return path;
+        } finally {
+            forward.release();
+            backward.release();
+        }
+    }
 
-    for (Node start : graph.nodes) {
-        if (visited.contains(start)) continue;
+    // Settles one node of this side and records the best meeting point with the other side
+    private static void expandFrontier(CsrGraph g, IndexedDaryHeap queue, SearchState self,
+                                       SearchState other, double[] best, int[] meet) {
+        int u = queue.poll();
+        double du = self.distance(u);
+        for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+            int v = g.targets[k];
+            double d = du + g.costs[k];
+            if (d < self.distance(v)) {
+                self.set(v, d, u);
+                queue.insertOrDecrease(v, d);
+            }
+            if (other.reached(v)) {
+                double total = self.distance(v) + other.distance(v);
+                if (total < best[0]) {
+                    best[0] = total;
+                    meet[0] = v;
+                }
+            }
+        }
+    }
 
-        // Yeni bileşen
-        components++;
+    public static int[] runBFS(CsrGraph g, int start) {
+        boolean[] visited = new boolean[g.nodeCount()];
+        int[] queue = new int[g.nodeCount()];
+        int head = 0, tail = 0;
+
+        visited[start] = true;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int u = queue[head++];
+            for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+                int v = g.targets[k];
+                if (!visited[v]) {
+                    visited[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
 
-        // BFS ile bu bileşendeki tüm nodeları bul
-        Queue<Node> q = new LinkedList<>();
-        q.add(start);
-        visited.add(start);
+    public static int[] runDFS(CsrGraph g, int start) {
+        boolean[] visited = new boolean[g.nodeCount()];
+        int[] order = new int[g.nodeCount()];
+        int count = 0;
 
-        while (!q.isEmpty()) {
-            Node u = q.poll();
+        // A node may be pushed once per incoming edge, so size the stack by E
+        int[] stack = new int[g.edgeCount() + 1];
+        int top = 0;
+        stack[top++] = start;
 
-            // Bu node'u bileşen rengine boya
-            u.colorIndex = color;
+        while (top > 0) {
+            int u = stack[--top];
+            if (visited[u]) continue;
 
-            // Komşuları bul (Graph'in çift edge yapısına uyumlu)
-            for (Edge e : graph.edges) {
-                Node v = null;
+            visited[u] = true;
+            order[count++] = u;
+            for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+                int v = g.targets[k];
+                if (!visited[v]) stack[top++] = v;
+            }
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    public static int countConnectedComponents(CsrGraph g) {
+        int count = 0;
+        for (int label : componentLabels(g)) count = Math.max(count, label);
+        return count;
+    }
 
-                if (e.source == u) v = e.target;
-                else if (e.target == u) v = e.source;
-                else continue;
+    // Component number (1..k) for every node index
+    public static int[] componentLabels(CsrGraph g) {
+        int n = g.nodeCount();
+        int[] labels = new int[n];
+        int[] queue = new int[n];
+        int count = 0;
 
-                if (!visited.contains(v)) {
-                    visited.add(v);
-                    q.add(v);
+        for (int s = 0; s < n; s++) {
+            if (labels[s] != 0) continue;
+            count++;
+
+            int head = 0, tail = 0;
+            labels[s] = count;
+            queue[tail++] = s;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+                    int v = g.targets[k];
+                    if (labels[v] == 0) {
+                        labels[v] = count;
+                        queue[tail++] = v;
+                    }
                 }
             }
         }
+        return labels;
+    }
 
-        // Sonraki bileşen farklı renk alsın
-        color++;
-        // Çok renk yoksa döndür (istersen kaldır)
-        if (color > 12) color = 1;
+    // Largest-degree-first greedy (the Welsh–Powell order) in O(V + E): each node
+    // takes the smallest color unused by its colored neighbors (colors start at 1)
+    public static int[] greedyColoring(CsrGraph g) {
+        int n = g.nodeCount();
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) maxDegree = Math.max(maxDegree, g.degree(v));
+
+        // Counting sort by degree, highest first
+        int[] start = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) start[maxDegree - g.degree(v) + 1]++;
+        for (int d = 1; d < start.length; d++) start[d] += start[d - 1];
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) order[start[maxDegree - g.degree(v)]++] = v;
+
+        int[] colors = new int[n];
+        int[] forbidden = new int[maxDegree + 2]; // forbidden[c] == v + 1: a neighbor of v has color c
+        for (int v : order) {
+            for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                int c = colors[g.targets[k]];
+                if (c != 0) forbidden[c] = v + 1;
+            }
+            int color = 1;
+            while (forbidden[color] == v + 1) color++;
+            colors[v] = color;
+        }
+        return colors;
     }
 
-    return components;
-}
+    public static int colorCount(int[] colors) {
+        int max = 0;
+        for (int c : colors) max = Math.max(max, c);
+        return max;
+    }
+
+    // Copies a per-index color result into Node.colorIndex for the renderer
+    public static void applyColors(CsrGraph g, int[] colors) {
+        for (int v = 0; v < colors.length; v++) g.node(v).colorIndex = colors[v];
+    }
+
+    // Batagelj–Zaversnik k-core decomposition in O(V + E): nodes sit in buckets
+    // by current degree and are peeled from the lowest bucket upwards
+    public static int[] coreNumbers(CsrGraph g) {
+        int n = g.nodeCount();
+        int[] degree = new int[n];
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            degree[v] = g.degree(v);
+            maxDegree = Math.max(maxDegree, degree[v]);
+        }
+
+        // vert: nodes sorted by degree, pos: index of each node in vert, start: first slot per degree
+        int[] start = new int[maxDegree + 1];
+        for (int v = 0; v < n; v++) start[degree[v]]++;
+        for (int d = 0, sum = 0; d <= maxDegree; d++) {
+            int count = start[d];
+            start[d] = sum;
+            sum += count;
+        }
+        int[] vert = new int[n];
+        int[] pos = new int[n];
+        int[] fill = start.clone();
+        for (int v = 0; v < n; v++) {
+            pos[v] = fill[degree[v]]++;
+            vert[pos[v]] = v;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int v = vert[i];
+            for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                int u = g.targets[k];
+                if (degree[u] <= degree[v]) continue;
+
+                // Move u to the front of its bucket, then shrink the bucket by one
+                int du = degree[u];
+                int w = vert[start[du]];
+                if (u != w) {
+                    vert[pos[u]] = w;
+                    vert[start[du]] = u;
+                    pos[w] = pos[u];
+                    pos[u] = start[du];
+                }
+                start[du]++;
+                degree[u]--;
+            }
+        }
+        return degree;
+    }
+
+    // Triangles through every node. Each edge points from lower to higher
+    // (degree, index) rank, which leaves every node at most O(sqrt(E)) out-neighbors.
+    // Out-lists are sorted, and each triangle is found once by a merge of two lists.
+    public static long[] triangleCounts(CsrGraph g) {
+        int n = g.nodeCount();
+        int[] outOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int out = 0;
+            for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                if (rankedBefore(g, v, g.targets[k])) out++;
+            }
+            outOffsets[v + 1] = outOffsets[v] + out;
+        }
+        int[] out = new int[outOffsets[n]];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int pos = outOffsets[v];
+            for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                if (rankedBefore(g, v, g.targets[k])) out[pos++] = g.targets[k];
+            }
+            Arrays.sort(out, outOffsets[v], pos);
+        });
+
+        AtomicLongArray counts = new AtomicLongArray(n);
+        IntStream.range(0, n).parallel().forEach(v -> {
+            long own = 0;
+            for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                int u = out[i];
+                // Common out-neighbors w of v and u close the triangle v-u-w
+                int a = outOffsets[v], aEnd = outOffsets[v + 1];
+                int b = outOffsets[u], bEnd = outOffsets[u + 1];
+                long found = 0;
+                while (a < aEnd && b < bEnd) {
+                    if (out[a] < out[b]) a++;
+                    else if (out[a] > out[b]) b++;
+                    else {
+                        counts.incrementAndGet(out[a]);
+                        found++;
+                        a++;
+                        b++;
+                    }
+                }
+                if (found > 0) counts.addAndGet(u, found);
+                own += found;
+            }
+            if (own > 0) counts.addAndGet(v, own);
+        });
+
+        long[] result = new long[n];
+        for (int v = 0; v < n; v++) result[v] = counts.get(v);
+        return result;
+    }
+
+    // Local clustering coefficient: closed fraction of the node's neighbor pairs
+    public static double[] localClustering(CsrGraph g, long[] triangles) {
+        double[] local = new double[g.nodeCount()];
+        for (int v = 0; v < local.length; v++) {
+            long d = g.degree(v);
+            local[v] = d < 2 ? 0 : 2.0 * triangles[v] / (d * (d - 1));
+        }
+        return local;
+    }
+
+    // Global clustering (transitivity): 3 * triangles / connected triples
+    public static double globalClustering(CsrGraph g, long[] triangles) {
+        long closed = 0, triples = 0;
+        for (int v = 0; v < g.nodeCount(); v++) {
+            long d = g.degree(v);
+            closed += triangles[v];
+            triples += d * (d - 1) / 2;
+        }
+        // Every triangle is counted at each of its three corners
+        return triples == 0 ? 0 : (double) closed / triples;
+    }
+
+    private static boolean rankedBefore(CsrGraph g, int a, int b) {
+        int da = g.degree(a), db = g.degree(b);
+        return da < db || (da == db && a < b);
+    }
 }
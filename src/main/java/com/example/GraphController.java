@@ -1,12 +1,27 @@
 package com.example;
 
+import javafx.concurrent.Task;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextArea;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.stream.Stream;
 
 public class GraphController {
 
+    private static final int PARALLEL_COLORING_MIN_NODES = 50_000;
+    // Above this size betweenness is estimated from sampled pivots
+    private static final int EXACT_BETWEENNESS_MAX_NODES = 5_000;
+    // Guard for the affinity graph: a low threshold connects almost everyone
+    private static final int MAX_AFFINITY_EDGES = 5_000_000;
+
     private final Graph graph;
     private final TextArea infoArea;
     private final AnimationManager animationManager;
@@ -17,6 +32,26 @@ public class GraphController {
     private final Runnable redrawCallback;      // За прерисуване на Canvas
     private final Runnable tableUpdateCallback; // НОВО: За обновяване на Таблицата
 
+    // Last centrality ranking, shown in the table's score column
+    private final Map<Node, Double> centralityScores = new HashMap<>();
+    // Last power-iteration vectors, reused as the start point after edits
+    private final Map<CentralityMeasure, PowerIterationCentrality.Result> lastVectors =
+            new EnumMap<>(CentralityMeasure.class);
+    private CentralityMeasure lastMeasure;
+    // Last clustering run, shown in the table's clustering column until the next run
+    private final Map<Node, Double> clusteringScores = new HashMap<>();
+
+    // Shortest path results for the current graph version
+    private final PathCache pathCache = new PathCache();
+
+    // True while the canvas shows k-core colors, so new edges can update them
+    private boolean coreColoring;
+
+    // CH preprocessing running in the background (null if none), and the
+    // hierarchy it produced last, until its build time has been reported once
+    private Task<ContractionHierarchy> chPreprocessing;
+    private ContractionHierarchy freshHierarchy;
+
     // Конструкторът приема Runnable вместо TableView
     public GraphController(Graph graph, TextArea infoArea, AnimationManager animationManager, 
                            Runnable redrawCallback, Runnable tableUpdateCallback) {
@@ -30,7 +65,9 @@ public class GraphController {
     public void runBFS(InteractionState state, List<Node> highlightedNodes) {
         if (state.selected1 != null) {
             long startTime = System.nanoTime();
-            List<Node> results = GraphAlgorithms.runBFS(graph, state.selected1);
+            CsrGraph csr = graph.snapshot();
+            ParallelBfs.Result bfs = ParallelBfs.run(csr, csr.indexOf(state.selected1));
+            List<Node> results = csr.toNodes(bfs.order);
             long endTime = System.nanoTime();
 
             // Обновяваме списъка, който Main гледа, за да попълни таблицата
@@ -38,6 +75,7 @@ public class GraphController {
             highlightedNodes.addAll(results);
             
             infoArea.setText("BFS: Found " + highlightedNodes.size() + " reachable people from " + state.selected1.name);
+            infoArea.appendText("\nLevels: " + bfs.depth + " hops deep");
             double duration = (endTime - startTime) / 1_000_000.0;
             infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
             
@@ -52,7 +90,9 @@ public class GraphController {
     public void runDFS(InteractionState state, List<Node> highlightedNodes) {
         if (state.selected1 != null) {
             long startTime = System.nanoTime();
-            List<Node> results = GraphAlgorithms.runDFS(graph, state.selected1);
+            CsrGraph csr = graph.snapshot();
+            int[] order = GraphAlgorithms.runDFS(csr, csr.indexOf(state.selected1));
+            List<Node> results = csr.toNodes(order);
             long endTime = System.nanoTime();
 
             highlightedNodes.clear();
@@ -72,11 +112,14 @@ public class GraphController {
     public void runDijkstra(InteractionState state, List<Node> highlightedNodes) {
         if (state.selected1 != null && state.selected2 != null) {
             long startTime = System.nanoTime();
-            List<Node> path = GraphAlgorithms.runDijkstra(graph, state.selected1, state.selected2);
+            List<Node> path = pathCache.path(PathAlgorithm.DIJKSTRA, graph, state.selected1, state.selected2);
             long endTime = System.nanoTime();
+            // Off the clock: a source asked for again gets a full tree for its next targets
+            pathCache.buildPendingTree(graph);
 
             if (path.isEmpty()) {
                 infoArea.setText("No path found.");
+                infoArea.appendText("\n" + pathCache.stats());
                 highlightedNodes.clear();
                 
                 tableUpdateCallback.run();
@@ -85,6 +128,7 @@ public class GraphController {
                 infoArea.setText("Dijkstra Path: " + path.size() + " steps. Animating...");
                 double duration = (endTime - startTime) / 1_000_000.0;
                 infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
+                infoArea.appendText("\n" + pathCache.stats());
                 
                 // Тук не пълним highlightedNodes веднага, защото анимацията ще го прави стъпка по стъпка.
                 // Но викаме update, за да се изчисти таблицата или да покаже начално състояние.
@@ -98,14 +142,130 @@ public class GraphController {
         }
     }
 
+    public void runBidirectionalDijkstra(InteractionState state, List<Node> highlightedNodes) {
+        if (state.selected1 != null && state.selected2 != null) {
+            long startTime = System.nanoTime();
+            List<Node> path = pathCache.path(PathAlgorithm.BIDIRECTIONAL_DIJKSTRA, graph, state.selected1, state.selected2);
+            long endTime = System.nanoTime();
+
+            if (path.isEmpty()) {
+                infoArea.setText("No path found.");
+                infoArea.appendText("\n" + pathCache.stats());
+                highlightedNodes.clear();
+
+                tableUpdateCallback.run();
+                redrawCallback.run();
+            } else {
+                infoArea.setText("Bidirectional Dijkstra Path: " + path.size() + " steps. Animating...");
+                double duration = (endTime - startTime) / 1_000_000.0;
+                infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
+                infoArea.appendText("\n" + pathCache.stats());
+
+                tableUpdateCallback.run();
+                animationManager.animatePath(path, highlightedNodes, redrawCallback);
+            }
+        } else {
+            infoArea.setText("Select 2 people for Bidirectional Dijkstra.");
+        }
+    }
+
+    public void runContractionHierarchy(InteractionState state, List<Node> highlightedNodes) {
+        if (state.selected1 != null && state.selected2 != null) {
+            // Preprocessing runs once per graph version, off the FX thread; we come back here when it is done
+            ContractionHierarchy ch = contractionHierarchy(() -> runContractionHierarchy(state, highlightedNodes));
+            if (ch == null) return;
+            boolean fresh = takeFresh(ch);
+
+            long startTime = System.nanoTime();
+            List<Node> path = pathCache.path(PathAlgorithm.CONTRACTION_HIERARCHY, graph, state.selected1, state.selected2);
+            long endTime = System.nanoTime();
+
+            if (path.isEmpty()) {
+                infoArea.setText("No path found.");
+                infoArea.appendText("\n" + pathCache.stats());
+                highlightedNodes.clear();
+
+                tableUpdateCallback.run();
+                redrawCallback.run();
+            } else {
+                infoArea.setText("CH Path: " + path.size() + " steps. Animating...");
+                double duration = (endTime - startTime) / 1_000_000.0;
+                infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
+                infoArea.appendText(String.format("\nPreprocessing: %.1f ms%s (%d shortcuts, core of %d)",
+                        ch.preprocessingMillis(), fresh ? "" : ", cached", ch.shortcutCount(), ch.coreSize()));
+                infoArea.appendText("\n" + pathCache.stats());
+
+                tableUpdateCallback.run();
+                animationManager.animatePath(path, highlightedNodes, redrawCallback);
+            }
+        } else {
+            infoArea.setText("Select 2 people for Contraction Hierarchies.");
+        }
+    }
+
+    /**
+     * The hierarchy of the current graph if it is built. Otherwise starts the
+     * preprocessing on a background thread, shows its progress and returns
+     * null; {@code whenReady} runs on the FX thread once it is done. Called
+     * again while it runs, it cancels the preprocessing instead.
+     */
+    private ContractionHierarchy contractionHierarchy(Runnable whenReady) {
+        CsrGraph csr = graph.snapshot();
+        if (csr.hasContractionHierarchy()) return csr.contractionHierarchy();
+        if (chPreprocessing != null) {
+            chPreprocessing.cancel();
+            return null;
+        }
+
+        Task<ContractionHierarchy> task = new Task<>() {
+            @Override
+            protected ContractionHierarchy call() {
+                return csr.contractionHierarchy(p -> updateProgress(p, 1.0), this::isCancelled);
+            }
+        };
+        task.progressProperty().addListener((obs, old, p) -> {
+            if (chPreprocessing != task) return; // late update after a cancel
+            infoArea.setText(String.format("CH preprocessing for %d people: %.0f%%\nClick again to cancel.",
+                    csr.nodeCount(), p.doubleValue() * 100));
+        });
+        task.setOnSucceeded(e -> {
+            chPreprocessing = null;
+            freshHierarchy = task.getValue();
+            whenReady.run();
+        });
+        task.setOnCancelled(e -> {
+            chPreprocessing = null;
+            infoArea.setText("CH preprocessing cancelled.");
+        });
+        task.setOnFailed(e -> {
+            chPreprocessing = null;
+            infoArea.setText("CH preprocessing failed: " + task.getException());
+        });
+
+        chPreprocessing = task;
+        infoArea.setText("CH preprocessing for " + csr.nodeCount() + " people...\nClick again to cancel.");
+        Thread worker = new Thread(task, "ch-preprocessing");
+        worker.setDaemon(true);
+        worker.start();
+        return null;
+    }
+
+    // True the first time a freshly built hierarchy is reported (its build time was just paid)
+    private boolean takeFresh(ContractionHierarchy ch) {
+        boolean fresh = ch == freshHierarchy;
+        freshHierarchy = null;
+        return fresh;
+    }
+
     public void runAStar(InteractionState state, List<Node> highlightedNodes) {
         if (state.selected1 != null && state.selected2 != null) {
             long startTime = System.nanoTime();
-            List<Node> path = GraphAlgorithms.runAStar(graph, state.selected1, state.selected2);
+            List<Node> path = pathCache.path(PathAlgorithm.ASTAR, graph, state.selected1, state.selected2);
             long endTime = System.nanoTime();
             
             if (path.isEmpty()) {
                 infoArea.setText("No path found.");
+                infoArea.appendText("\n" + pathCache.stats());
                 highlightedNodes.clear();
                 
                 tableUpdateCallback.run();
@@ -114,6 +274,7 @@ public class GraphController {
                 infoArea.setText("A* Path: " + path.size() + " steps. Animating...");
                 double duration = (endTime - startTime) / 1_000_000.0;
                 infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
+                infoArea.appendText("\n" + pathCache.stats());
                 
                 tableUpdateCallback.run();
                 animationManager.animatePath(path, highlightedNodes, redrawCallback);
@@ -123,8 +284,19 @@ public class GraphController {
         }
     }
 
+    // Scripted queries (e.g. every manager -> every new hire), independent of the
+    // interactive selection; results arrive in completion order
+    public Stream<BatchQueries.Result> runBatch(List<BatchQueries.Query> queries) {
+        return BatchQueries.run(graph.snapshot(), queries);
+    }
+
     public void runComparison(InteractionState state) {
         if (state.selected1 != null && state.selected2 != null) {
+            // CH needs its preprocessing first; it runs in the background and the race starts afterwards
+            ContractionHierarchy ch = contractionHierarchy(() -> runComparison(state));
+            if (ch == null) return;
+            boolean fresh = takeFresh(ch);
+
             StringBuilder result = new StringBuilder("🏆 Algorithm Performance Race 🏆\n");
             result.append("Route: ").append(state.selected1.name).append(" ➔ ").append(state.selected2.name).append("\n\n");
 
@@ -135,25 +307,42 @@ public class GraphController {
             double timeD = (endD - startD) / 1_000_000.0;
             result.append(String.format("🔹 Dijkstra:\n   Time: %.4f ms\n   Steps: %d\n\n", timeD, pathD.size()));
 
-            // 2. A*
+            // 1b. Bidirectional Dijkstra
+            long startBi = System.nanoTime();
+            List<Node> pathBi = GraphAlgorithms.runBidirectionalDijkstra(graph, state.selected1, state.selected2);
+            long endBi = System.nanoTime();
+            double timeBi = (endBi - startBi) / 1_000_000.0;
+            result.append(String.format("🔹 Bidirectional Dijkstra:\n   Time: %.4f ms\n   Steps: %d\n\n", timeBi, pathBi.size()));
+
+            // 1c. Contraction Hierarchies: query time, plus the one-off preprocessing of this graph version
+            long startCH = System.nanoTime();
+            List<Node> pathCH = GraphAlgorithms.runContractionHierarchy(graph, state.selected1, state.selected2);
+            long endCH = System.nanoTime();
+            double timeCH = (endCH - startCH) / 1_000_000.0;
+            result.append(String.format("🔸 Contraction Hierarchies:\n   Time: %.4f ms\n   Preprocessing: %.1f ms (%s)\n   Steps: %d\n\n",
+                    timeCH, ch.preprocessingMillis(), fresh ? "paid by this run" : "cached", pathCH.size()));
+
+            // 2. A*: landmarks are built up front so the query time is the query alone
+            CsrGraph snapshot = graph.snapshot();
+            boolean freshLandmarks = !snapshot.hasLandmarks();
+            LandmarkHeuristic landmarks = snapshot.landmarks();
             long startA = System.nanoTime();
             List<Node> pathA = GraphAlgorithms.runAStar(graph, state.selected1, state.selected2);
             long endA = System.nanoTime();
             double timeA = (endA - startA) / 1_000_000.0;
-            result.append(String.format("🔸 A* (A-Star):\n   Time: %.4f ms\n   Steps: %d\n\n", timeA, pathA.size()));
+            result.append(String.format("🔸 A* (A-Star):\n   Time: %.4f ms\n   Preprocessing: %.1f ms (%s)\n   Steps: %d\n\n",
+                    timeA, landmarks.preprocessingMillis(), freshLandmarks ? "paid by this run" : "cached", pathA.size()));
 
             // 3. BFS
             long startBFS = System.nanoTime();
-            List<Node> reachBFS = GraphAlgorithms.runBFS(graph, state.selected1);
-            boolean canReach = reachBFS.contains(state.selected2);
+            boolean canReach = GraphAlgorithms.isReachableBFS(graph, state.selected1, state.selected2);
             long endBFS = System.nanoTime();
             double timeBFS = (endBFS - startBFS) / 1_000_000.0;
             result.append(String.format("🔹 BFS (Scan):\n   Time: %.4f ms\n   Reachable: %s\n", timeBFS, canReach ? "YES" : "NO"));
 
             // 4. DFS
             long startDFS = System.nanoTime();
-            List<Node> reachDFS = GraphAlgorithms.runDFS(graph, state.selected1);
-            boolean canReachDFS = reachDFS.contains(state.selected2);
+            boolean canReachDFS = GraphAlgorithms.isReachableDFS(graph, state.selected1, state.selected2);
             long endDFS = System.nanoTime();
             double timeDFS = (endDFS - startDFS) / 1_000_000.0;
             result.append(String.format("🔸 DFS (Scan):\n   Time: %.4f ms\n   Reachable: %s\n", timeDFS, canReachDFS ? "YES" : "NO"));
@@ -169,8 +358,13 @@ public class GraphController {
     }
 
     public void runComponents() {
+        coreColoring = false;
         int count = GraphAlgorithms.countAndColorComponents(graph);
         infoArea.setText("Found " + count + " disconnected communities (Islands). They are now colored.");
+
+        int largest = 0;
+        for (Node n : graph.nodes) largest = Math.max(largest, graph.getComponentSize(n));
+        infoArea.appendText("\nLargest island: " + largest + " people");
         
         // Тук highlightedNodes не се променя, което значи, че Main 
         // ще покаже всички нодове в таблицата (както е редно за този изглед).
@@ -178,9 +372,105 @@ public class GraphController {
         redrawCallback.run();
     }
 
+    public void runCommunities() {
+        coreColoring = false;
+        long startTime = System.nanoTime();
+        LouvainCommunities.Result result = GraphAlgorithms.detectAndColorCommunities(graph);
+        double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        infoArea.setText("Louvain: found " + result.count + " communities (modularity "
+                + String.format("%.4f", result.modularity) + ", " + result.levels + " levels). They are now colored.");
+        infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
+
+        tableUpdateCallback.run();
+        redrawCallback.run();
+    }
+
+    public void runKCore() {
+        long startTime = System.nanoTime();
+        int maxCore = GraphAlgorithms.runKCore(graph);
+        double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+        coreColoring = true;
+
+        int inCore = 0;
+        for (Node n : graph.nodes) if (n.colorIndex == maxCore) inCore++;
+        infoArea.setText("K-core: innermost core is the " + maxCore + "-core with " + inCore
+                + " people. Nodes are colored by core number.");
+        infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
+
+        tableUpdateCallback.run();
+        redrawCallback.run();
+    }
+
+    public void runClustering() {
+        long startTime = System.nanoTime();
+        CsrGraph csr = graph.snapshot();
+        long[] triangles = GraphAlgorithms.triangleCounts(csr);
+        double[] local = GraphAlgorithms.localClustering(csr, triangles);
+        double global = GraphAlgorithms.globalClustering(csr, triangles);
+        double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        clusteringScores.clear();
+        long total = 0;
+        double sum = 0;
+        for (int v = 0; v < local.length; v++) {
+            clusteringScores.put(csr.node(v), local[v]);
+            total += triangles[v];
+            sum += local[v];
+        }
+        infoArea.setText(String.format("Clustering: %d triangles, average local coefficient %.4f, global %.4f.",
+                total / 3, local.length == 0 ? 0.0 : sum / local.length, global));
+        infoArea.appendText("\nShown in the table until the next run. Time: " + String.format("%.4f", duration) + " ms");
+
+        tableUpdateCallback.run();
+    }
+
+    // Local clustering coefficient of n from the last run, NaN if n was not there
+    public double getClustering(Node n) {
+        Double c = clusteringScores.get(n);
+        return c == null ? Double.NaN : c;
+    }
+
+    // Called after an edge was added in Connect Mode; core numbers are already
+    // updated incrementally by the graph, only the colors need refreshing
+    public void refreshCoreColors() {
+        if (!coreColoring) return;
+        GraphAlgorithms.runKCore(graph);
+        redrawCallback.run();
+    }
+
+    public void stopCoreColoring() {
+        coreColoring = false;
+    }
+
+    // Spanning forest for the backbone view; maximum = strongest ties
+    public List<Edge> runSpanningTree(boolean maximum) {
+        long startTime = System.nanoTime();
+        CsrGraph csr = graph.snapshot();
+        SpanningForest.Result tree = GraphAlgorithms.runSpanningTree(csr, maximum);
+        List<Edge> edges = GraphAlgorithms.treeEdges(graph, csr, tree);
+        double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        infoArea.setText((maximum ? "Strongest-ties backbone" : "Minimum spanning tree") + ": "
+                + edges.size() + " of " + csr.edgeCount() / 2 + " connections kept, total cost "
+                + String.format("%.4f", tree.totalCost) + ".");
+        infoArea.appendText("\n" + tree.trees + " tree(s), " + tree.rounds + " Boruvka rounds.");
+        infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
+        return edges;
+    }
+
     public void runColoring() {
-        GraphAlgorithms.runColoring(graph);
-        infoArea.setText("Graph colored using Welsh-Powell algorithm.");
+        coreColoring = false;
+        // Jones-Plassmann only pays off with several cores and a large graph
+        boolean parallel = graph.nodes.size() >= PARALLEL_COLORING_MIN_NODES
+                && Runtime.getRuntime().availableProcessors() > 1;
+        long startTime = System.nanoTime();
+        int colors = parallel ? GraphAlgorithms.runParallelColoring(graph) : GraphAlgorithms.runColoring(graph);
+        double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        infoArea.setText("Graph colored using " + (parallel ? "parallel Jones-Plassmann" : "greedy Welsh-Powell order")
+                + " with " + colors + " colors.");
+        infoArea.appendText("\nTime: " + String.format("%.4f", duration) + " ms");
         
         tableUpdateCallback.run();
         redrawCallback.run();
@@ -188,16 +478,24 @@ public class GraphController {
 
     // ВНИМАНИЕ: Промених метода да приема highlightedNodes, 
     // за да може таблицата да покаже само топ лидерите.
-    public void runCentrality(List<Node> highlightedNodes) {
-        List<Node> top = GraphAlgorithms.getTopCentrality(graph);
+    public void runCentrality(CentralityMeasure measure, int topN, List<Node> highlightedNodes) {
+        coreColoring = false;
+        lastMeasure = measure;
+        if (measure != CentralityMeasure.DEGREE) {
+            runScoredCentrality(measure, topN, highlightedNodes);
+            return;
+        }
+        // Готова класация от Graph, без сортиране
+        List<Node> top = GraphAlgorithms.getTopCentrality(graph, topN);
         
         // Нулираме цветовете
         for (Node n : graph.nodes) n.colorIndex = 0;
         highlightedNodes.clear();
+        centralityScores.clear();
 
         if (!top.isEmpty()) {
-            StringBuilder sb = new StringBuilder("Top 5 Influencers:\n");
-            int count = Math.min(5, top.size());
+            StringBuilder sb = new StringBuilder("Top " + top.size() + " Influencers:\n");
+            int count = top.size();
             
             for (int i = 0; i < count; i++) {
                 Node n = top.get(i);
@@ -214,9 +512,110 @@ public class GraphController {
         }
     }
 
+    // Score of n in the last Top Leaders run, NaN if it was not ranked
+    public double getCentralityScore(Node n) {
+        if (lastMeasure == CentralityMeasure.DEGREE) return graph.getDegree(n);
+        Double score = centralityScores.get(n);
+        return score == null ? Double.NaN : score;
+    }
+
+    private void runScoredCentrality(CentralityMeasure measure, int topN, List<Node> highlightedNodes) {
+        CsrGraph csr = graph.snapshot();
+        boolean sampled = csr.nodeCount() > EXACT_BETWEENNESS_MAX_NODES;
+
+        long startTime = System.nanoTime();
+        double[] scores;
+        String note = "";
+        if (measure == CentralityMeasure.BETWEENNESS) {
+            scores = GraphAlgorithms.runBetweenness(graph, sampled);
+            if (sampled) note = " (approx., " + BetweennessCentrality.DEFAULT_PIVOTS + " pivots)";
+        } else {
+            PowerIterationCentrality.Result previous = lastVectors.get(measure);
+            PowerIterationCentrality.Result result = measure == CentralityMeasure.PAGERANK
+                    ? GraphAlgorithms.runPageRank(graph, previous)
+                    : GraphAlgorithms.runEigenvector(graph, previous);
+            lastVectors.put(measure, result);
+            scores = result.scores;
+            note = " (" + result.iterations + " iterations" + (previous != null ? ", warm start" : "")
+                    + (result.converged ? "" : ", not converged") + ")";
+        }
+        int[] top = GraphAlgorithms.topK(scores, topN);
+        double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        for (Node n : graph.nodes) n.colorIndex = 0;
+        highlightedNodes.clear();
+        centralityScores.clear();
+        for (int v = 0; v < scores.length; v++) centralityScores.put(csr.node(v), scores[v]);
+        if (top.length == 0) return;
+
+        StringBuilder sb = new StringBuilder("Top " + top.length + " by " + measure + note + ":\n");
+        for (int i = 0; i < top.length; i++) {
+            Node n = csr.node(top[i]);
+            n.colorIndex = i + 1;
+            sb.append(String.format("%d. %s (%.4g)\n", i + 1, n.name, scores[top[i]]));
+            highlightedNodes.add(n);
+        }
+        sb.append("Time: ").append(String.format("%.4f", duration)).append(" ms");
+        infoArea.setText(sb.toString());
+
+        tableUpdateCallback.run();
+        redrawCallback.run();
+    }
+
+    // k people with the closest attributes to n (k-d tree, no full scan)
+    public void findSimilar(Node n, int k, List<Node> highlightedNodes) {
+        long startTime = System.nanoTime();
+        List<Node> found = graph.getMostSimilar(n, k);
+        showSimilar(n, found, "Most similar to " + n.name, startTime, highlightedNodes);
+    }
+
+    // Everyone whose attributes are within `radius` of n
+    public void findSimilarWithin(Node n, double radius, List<Node> highlightedNodes) {
+        long startTime = System.nanoTime();
+        List<Node> found = graph.getSimilarWithin(n, radius);
+        showSimilar(n, found, "Within distance " + radius + " of " + n.name, startTime, highlightedNodes);
+    }
+
+    private void showSimilar(Node n, List<Node> found, String title, long startTime, List<Node> highlightedNodes) {
+        double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+        coreColoring = false;
+
+        for (Node other : graph.nodes) other.colorIndex = 0;
+        highlightedNodes.clear();
+        n.colorIndex = 1;
+        highlightedNodes.add(n);
+
+        StringBuilder sb = new StringBuilder(title + " (" + found.size() + "):\n");
+        for (int i = 0; i < found.size(); i++) {
+            Node other = found.get(i);
+            other.colorIndex = 2;
+            highlightedNodes.add(other);
+            // Edge.calculateCost is 1 / (1 + distance), so this is the weight an edge n-other would get
+            sb.append(String.format("%d. %s (similarity %.4f)\n", i + 1, other.name, Edge.calculateCost(n, other)));
+        }
+        sb.append("Time: ").append(String.format("%.4f", duration)).append(" ms");
+        infoArea.setText(sb.toString());
+
+        tableUpdateCallback.run();
+        redrawCallback.run();
+    }
+
+    // Writes the all-pairs distance matrix as CSV (streamed, so large graphs fit)
+    public void exportDistanceMatrix(File file) {
+        CsrGraph csr = graph.snapshot();
+        long startTime = System.nanoTime();
+        try {
+            AllPairsShortestPaths.writeCsv(csr, file.toPath());
+            double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+            infoArea.setText("Distance matrix (" + csr.nodeCount() + " x " + csr.nodeCount() + ") saved to " + file.getName());
+            infoArea.appendText("\nTime: " + String.format("%.1f", duration) + " ms");
+        } catch (IOException ex) {
+            infoArea.setText("Export failed: " + ex.getMessage());
+        }
+    }
+
     public void generateRandomData(double width, double height, int count) {
-        graph.nodes.clear();
-        graph.edges.clear();
+        graph.clear();
 
         Random rand = new Random();
         for (int i = 1; i <= count; i++) {
@@ -245,6 +644,36 @@ public class GraphController {
         redrawCallback.run();
     }
 
+    // Replaces all edges with the affinity graph: every pair whose edge cost would be >= threshold
+    public void buildAffinityGraph(double threshold) {
+        long startTime = System.nanoTime();
+        List<Node> people = new ArrayList<>(graph.nodes);
+        long[] pairs;
+        try {
+            pairs = AffinityGraph.pairs(people, threshold, MAX_AFFINITY_EDGES);
+        } catch (IllegalStateException ex) {
+            infoArea.setText("Threshold " + threshold + " would create more than " + MAX_AFFINITY_EDGES
+                    + " connections. Try a higher threshold.");
+            return;
+        }
+        double searchTime = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        // clear() + addNode keeps the lazy indexes stale, so the inserts below stay cheap
+        graph.clear();
+        for (Node n : people) graph.addNode(n);
+        for (long pair : pairs) graph.addEdge(people.get((int) (pair >>> 32)), people.get((int) pair));
+        double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+
+        coreColoring = false;
+        infoArea.setText("Affinity graph (cost >= " + threshold + ", attribute distance <= "
+                + String.format("%.4g", AffinityGraph.radiusFor(threshold)) + "): "
+                + pairs.length + " connections.");
+        infoArea.appendText("\nGrid search: " + String.format("%.4f", searchTime) + " ms");
+        infoArea.appendText("\nTotal: " + String.format("%.4f", duration) + " ms");
+        tableUpdateCallback.run();
+        redrawCallback.run();
+    }
+
     public int getNextId() {
         int max = 0;
         for (Node n : graph.nodes) if (n.id > max) max = n.id;
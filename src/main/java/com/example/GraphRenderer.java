@@ -7,11 +7,14 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
 import java.util.List;
+import java.util.Set;
 
 public class GraphRenderer {
 
     private final Canvas canvas;
     public boolean showPathLines = true;
+    // When set, only these edges are drawn (spanning tree backbone of a dense graph)
+    public Set<Edge> backbone;
 
     public GraphRenderer(Canvas canvas) {
         this.canvas = canvas;
@@ -40,6 +43,7 @@ public class GraphRenderer {
         // 2. РИСУВАНЕ НА ВРЪЗКИ (EDGES)
         // ============================
         for (Edge e : graph.edges) {
+            if (backbone != null && !backbone.contains(e)) continue;
             boolean isPath = isEdgeInPath(e, highlightedNodes);
             
             boolean isConnectedToSelected = (selected1 != null) && (e.source == selected1 || e.target == selected1);
@@ -133,18 +137,22 @@ public class GraphRenderer {
     }
 
     private Color getColorByIndex(int index) {
-       switch (index % 10) {
-    case 1: return Color.TOMATO;
-    case 2: return Color.VIOLET;
-    case 3: return Color.LIMEGREEN;
-    case 4: return Color.GOLD;
-    case 5: return Color.CYAN;
-    case 6: return Color.CORNFLOWERBLUE;
-    case 7: return Color.ORANGE;
-    case 8: return Color.HOTPINK;
-    case 9: return Color.MEDIUMSEAGREEN;
-    default: return Color.GRAY;
-}
-
+        switch (index) {
+            case 1: return Color.TOMATO;
+            case 2: return Color.VIOLET;
+            case 3: return Color.LIMEGREEN;
+            case 4: return Color.GOLD;
+            case 5: return Color.CYAN;
+            case 6: return Color.CORNFLOWERBLUE;
+            case 7: return Color.ORANGE;
+            case 8: return Color.HOTPINK;
+            case 9: return Color.MEDIUMSEAGREEN;
+            // Beyond the fixed palette: step the hue by the golden angle so
+            // consecutive colors stay far apart, and vary the brightness per lap
+            default:
+                double hue = (index * 137.508) % 360;
+                double brightness = 0.95 - 0.15 * ((index / 10) % 3);
+                return Color.hsb(hue, 0.6, brightness);
+        }
     }
-}
\ No newline at end of file
+}
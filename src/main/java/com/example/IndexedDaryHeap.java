@@ -0,0 +1,144 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap over node indices 0..capacity-1 with double keys.
+ *
+ * Every node has a fixed slot in {@code pos}, so decrease-key is a sift-up
+ * in O(log_d V) instead of the O(n) {@code PriorityQueue.remove}. No objects
+ * are allocated after construction.
+ */
+public final class IndexedDaryHeap {
+
+    private static final int ARITY = 4;
+
+    private final int[] heap;     // heap position -> node
+    private final int[] pos;      // node -> heap position, -1 when absent
+    private final double[] keys;  // node -> key
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int v) {
+        return pos[v] >= 0;
+    }
+
+    public double key(int v) {
+        return keys[v];
+    }
+
+    public double minKey() {
+        return keys[heap[0]];
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public void insert(int v, double key) {
+        keys[v] = key;
+        heap[size] = v;
+        pos[v] = size;
+        siftUp(size++);
+    }
+
+    // Key must not increase
+    public void decreaseKey(int v, double key) {
+        keys[v] = key;
+        siftUp(pos[v]);
+    }
+
+    // Inserts v or lowers its key; returns false if the current key is already smaller
+    public boolean insertOrDecrease(int v, double key) {
+        if (pos[v] < 0) {
+            insert(v, key);
+            return true;
+        }
+        if (key < keys[v]) {
+            decreaseKey(v, key);
+            return true;
+        }
+        return false;
+    }
+
+    // Sets a new key in either direction (inserts v if absent)
+    public void update(int v, double key) {
+        if (pos[v] < 0) {
+            insert(v, key);
+        } else if (key < keys[v]) {
+            decreaseKey(v, key);
+        } else {
+            keys[v] = key;
+            siftDown(pos[v]);
+        }
+    }
+
+    public int poll() {
+        int min = heap[0];
+        pos[min] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    // O(size): only the slots still in the heap are touched
+    public void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        double key = keys[v];
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            int p = heap[parent];
+            if (keys[p] <= key) break;
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        double key = keys[v];
+        while (true) {
+            int first = i * ARITY + 1;
+            if (first >= size) break;
+
+            int best = first;
+            int last = Math.min(first + ARITY, size);
+            for (int c = first + 1; c < last; c++) {
+                if (keys[heap[c]] < keys[heap[best]]) best = c;
+            }
+            if (keys[heap[best]] >= key) break;
+
+            heap[i] = heap[best];
+            pos[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+}
@@ -18,8 +18,7 @@ public class JsonLoader {
     // --- LOAD JSON (Using Regex for stability) ---
     public static void load(String filePath, Graph graph) {
         // 1. Clear previous data
-        graph.nodes.clear();
-        graph.edges.clear();
+        graph.clear();
         
         Set<Integer> seenIds = new HashSet<>(); 
 
@@ -86,7 +85,9 @@ public class JsonLoader {
                 // [REGEX USED HERE]
                 // We use Regex to find "source" and "target" pairs specifically.
                 // This ignores newlines or spaces between the numbers.
-                Pattern edgePattern = Pattern.compile("\\{\\s*\"source\":\\s*(\\d+),\\s*\"target\":\\s*(\\d+)\\s*\\}");
+                // Optional "since" / "until" give the edge a validity interval [since, until).
+                Pattern edgePattern = Pattern.compile("\\{\\s*\"source\":\\s*(\\d+),\\s*\"target\":\\s*(\\d+)"
+                        + "(?:,\\s*\"since\":\\s*(-?\\d+))?(?:,\\s*\"until\":\\s*(-?\\d+))?\\s*\\}");
                 Matcher edgeMatcher = edgePattern.matcher(edgesContent);
 
                 int edgesCount = 0;
@@ -98,7 +99,20 @@ public class JsonLoader {
                     Node t = graph.getNodeById(tId);
                     
                     if (s != null && t != null) {
-                        graph.addEdge(s, t);
+                        String since = edgeMatcher.group(3);
+                        String until = edgeMatcher.group(4);
+                        if (since == null && until == null) {
+                            graph.addEdge(s, t);
+                        } else {
+                            try {
+                                graph.addEdge(s, t,
+                                        since == null ? TemporalEdgeStore.MIN_TIME : Long.parseLong(since),
+                                        until == null ? TemporalEdgeStore.MAX_TIME : Long.parseLong(until));
+                            } catch (IllegalArgumentException e) {
+                                System.out.println("Warning: Invalid interval for " + sId + " -> " + tId + ": " + e.getMessage());
+                                continue;
+                            }
+                        }
                         edgesCount++;
                     } else {
                         // TRANSLATED: Warning message
@@ -135,11 +149,13 @@ public class JsonLoader {
         // 2. Write Edges
         sb.append("  \"edges\": [\n");
         List<String> edgesLines = new ArrayList<>();
-        // Prevent duplicates (save only if source ID < target ID)
-        for (Edge e : graph.edges) {
-            if (e.source.id < e.target.id) {
-                edgesLines.add(String.format("    { \"source\": %d, \"target\": %d }", e.source.id, e.target.id));
-            }
+        // One line per validity interval; every live edge has at least one,
+        // so a single pass over the store writes the whole edge list
+        for (TemporalEdgeStore.Interval i : graph.getAllEdgeIntervals()) {
+            StringBuilder line = new StringBuilder(String.format("    { \"source\": %d, \"target\": %d", i.source().id, i.target().id));
+            if (i.since() != TemporalEdgeStore.MIN_TIME) line.append(", \"since\": ").append(i.since());
+            if (i.until() != TemporalEdgeStore.MAX_TIME) line.append(", \"until\": ").append(i.until());
+            edgesLines.add(line.append(" }").toString());
         }
         
         for (int i = 0; i < edgesLines.size(); i++) {
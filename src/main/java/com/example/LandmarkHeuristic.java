@@ -0,0 +1,140 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * ALT (A*, Landmarks, Triangle inequality) lower bounds for a {@link CsrGraph}.
+ *
+ * For every landmark L the exact distances d(L, v) are precomputed. Since
+ * d(L, t) <= d(L, v) + d(v, t), the value |d(L, t) - d(L, v)| never exceeds
+ * d(v, t), so the maximum over all landmarks is an admissible and consistent
+ * A* heuristic in edge-cost units.
+ *
+ * A landmark says nothing about nodes outside its own connected component,
+ * so every component with at least two nodes gets its own landmarks. Slot i
+ * of node v holds the distance from the i-th landmark of v's component,
+ * which keeps memory at count * V however many components there are.
+ */
+public final class LandmarkHeuristic {
+
+    public static final int DEFAULT_LANDMARKS = 8;
+
+    private final int[] landmarks;
+    private final int[] component;    // component label (1..k) per node
+    private final int[] slotCount;    // landmarks per component label
+    private final double[][] distances; // [slot][node]
+    private double preprocessingMillis;
+
+    private LandmarkHeuristic(int[] landmarks, int[] component, int[] slotCount, double[][] distances) {
+        this.landmarks = landmarks;
+        this.component = component;
+        this.slotCount = slotCount;
+        this.distances = distances;
+    }
+
+    /**
+     * Picks up to {@code count} landmarks per component by farthest-point
+     * selection: the first landmark is the node farthest from the component's
+     * best connected node and each next one is the node farthest from all
+     * previous landmarks. This spreads them over the periphery, where the
+     * bounds are tightest.
+     */
+    public static LandmarkHeuristic build(CsrGraph g, int count) {
+        long buildStart = System.nanoTime();
+        int n = g.nodeCount();
+        int[] component = GraphAlgorithms.componentLabels(g);
+        int components = 0;
+        for (int label : component) components = Math.max(components, label);
+
+        // Members of each component: members[start[c] .. start[c + 1])
+        int[] start = new int[components + 2];
+        for (int label : component) start[label + 1]++;
+        for (int c = 1; c <= components; c++) start[c + 1] += start[c];
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(start, components + 1);
+        for (int v = 0; v < n; v++) members[fill[component[v]]++] = v;
+
+        int[] slotCount = new int[components + 1];
+        double[][] distances = new double[0][];
+        int[] landmarks = new int[n]; // landmarks are distinct nodes
+        int chosen = 0;
+        double[] closest = new double[n]; // distance to the nearest chosen landmark
+
+        SearchState state = g.acquireState();
+        try {
+            for (int c = 1; c <= components; c++) {
+                int from = start[c], to = start[c + 1];
+                int size = to - from;
+                if (size < 2 || count <= 0) continue;
+
+                int seed = members[from];
+                for (int k = from + 1; k < to; k++) {
+                    if (g.degree(members[k]) > g.degree(seed)) seed = members[k];
+                }
+                GraphAlgorithms.runDijkstra(g, seed, -1, state);
+                int next = farthest(state, members, from, to);
+                for (int k = from; k < to; k++) closest[members[k]] = Double.POSITIVE_INFINITY;
+
+                int slots = Math.min(count, size);
+                for (int i = 0; i < slots; i++) {
+                    if (i == distances.length) {
+                        distances = Arrays.copyOf(distances, i + 1);
+                        distances[i] = new double[n];
+                    }
+                    landmarks[chosen++] = next;
+                    slotCount[c] = i + 1;
+                    GraphAlgorithms.runDijkstra(g, next, -1, state);
+
+                    double[] d = distances[i];
+                    for (int k = from; k < to; k++) {
+                        int v = members[k];
+                        d[v] = state.distance(v);
+                        closest[v] = Math.min(closest[v], d[v]);
+                    }
+
+                    // Farthest node of the component from the current landmark set
+                    for (int k = from; k < to; k++) {
+                        if (closest[members[k]] > closest[next]) next = members[k];
+                    }
+                    if (closest[next] == 0) break; // every node is already a landmark
+                }
+            }
+        } finally {
+            state.release();
+        }
+        LandmarkHeuristic heuristic = new LandmarkHeuristic(Arrays.copyOf(landmarks, chosen), component, slotCount, distances);
+        heuristic.preprocessingMillis = (System.nanoTime() - buildStart) / 1_000_000.0;
+        return heuristic;
+    }
+
+    public double preprocessingMillis() {
+        return preprocessingMillis;
+    }
+
+    private static int farthest(SearchState state, int[] members, int from, int to) {
+        int best = state.source();
+        for (int k = from; k < to; k++) {
+            int v = members[k];
+            if (state.distance(v) > state.distance(best)) best = v;
+        }
+        return best;
+    }
+
+    // Lower bound on the shortest path cost from v to target
+    public double estimate(int v, int target) {
+        int c = component[v];
+        // Different components: target is unreachable and any bound is admissible
+        if (c != component[target]) return 0;
+        double best = 0;
+        for (int i = 0; i < slotCount[c]; i++) {
+            double[] d = distances[i];
+            double bound = Math.abs(d[target] - d[v]);
+            if (bound > best) best = bound;
+        }
+        return best;
+    }
+
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+}
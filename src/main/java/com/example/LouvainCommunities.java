@@ -0,0 +1,283 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Louvain modularity communities over the cost-weighted {@link CsrGraph}.
+ *
+ * Each level alternates a local-moving phase with aggregation of the found
+ * communities into single nodes. Local moving runs in parallel one color
+ * class at a time (distance-1 coloring, as in Grappolo). Nodes in the same
+ * class are never adjacent, so none of them sees a neighbor change
+ * community mid-step; only the community totals are shared, and those are
+ * updated atomically.
+ */
+public final class LouvainCommunities {
+
+    // Stop moving when a pass improves modularity by less than this
+    private static final double MIN_GAIN = 1e-6;
+    private static final int MAX_PASSES = 32;
+    private static final int MAX_LEVELS = 16;
+
+    private LouvainCommunities() {
+    }
+
+    public static final class Result {
+        // Community number (1..count) per node index of the snapshot
+        public final int[] labels;
+        public final int count;
+        public final double modularity;
+        public final int levels;
+
+        Result(int[] labels, int count, double modularity, int levels) {
+            this.labels = labels;
+            this.count = count;
+            this.modularity = modularity;
+            this.levels = levels;
+        }
+    }
+
+    // Weighted graph of one level; self holds the weight inside each (super)node
+    private static final class Level {
+        final int n;
+        final int[] offsets;
+        final int[] targets;
+        final double[] weights;
+        final double[] self;
+        final double[] strength; // weighted degree including self
+
+        Level(int[] offsets, int[] targets, double[] weights, double[] self) {
+            this.n = offsets.length - 1;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.self = self;
+            this.strength = new double[n];
+            for (int v = 0; v < n; v++) {
+                double sum = self[v];
+                for (int k = offsets[v]; k < offsets[v + 1]; k++) sum += weights[k];
+                strength[v] = sum;
+            }
+        }
+    }
+
+    public static Result detect(CsrGraph g) {
+        int n = g.nodeCount();
+        Level level = new Level(g.offsets, g.targets, g.costs, new double[n]);
+
+        // membership[v]: node of the current level that original node v belongs to
+        int[] membership = new int[n];
+        for (int v = 0; v < n; v++) membership[v] = v;
+
+        int levels = 0;
+        double totalWeight = 0;
+        for (double s : level.strength) totalWeight += s;
+
+        while (totalWeight > 0 && levels < MAX_LEVELS) {
+            int[] community = moveNodes(level, totalWeight);
+            int count = renumber(community);
+            if (count == level.n) break; // nothing merged
+
+            for (int v = 0; v < n; v++) membership[v] = community[membership[v]];
+            level = aggregate(level, community, count);
+            levels++;
+        }
+
+        int[] labels = new int[n];
+        int count = 0;
+        int[] labelOf = new int[level.n];
+        for (int v = 0; v < n; v++) {
+            int c = membership[v];
+            if (labelOf[c] == 0) labelOf[c] = ++count;
+            labels[v] = labelOf[c];
+        }
+        return new Result(labels, count, modularity(g, labels, count), levels);
+    }
+
+    // Q = sum over communities of (internal / 2m - (total / 2m)^2)
+    public static double modularity(CsrGraph g, int[] labels, int count) {
+        double[] internal = new double[count + 1];
+        double[] total = new double[count + 1];
+        double twoM = 0;
+        for (int v = 0; v < g.nodeCount(); v++) {
+            for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                double w = g.costs[k];
+                twoM += w;
+                total[labels[v]] += w;
+                if (labels[g.targets[k]] == labels[v]) internal[labels[v]] += w;
+            }
+        }
+        if (twoM == 0) return 0;
+        double q = 0;
+        for (int c = 1; c <= count; c++) q += internal[c] / twoM - (total[c] / twoM) * (total[c] / twoM);
+        return q;
+    }
+
+    private static int[] moveNodes(Level level, double twoM) {
+        int n = level.n;
+        int[] community = new int[n];
+        AtomicLongArray total = new AtomicLongArray(n); // community strength, as double bits
+        for (int v = 0; v < n; v++) {
+            community[v] = v;
+            total.set(v, Double.doubleToRawLongBits(level.strength[v]));
+        }
+
+        int[][] classes = colorClasses(level);
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(n));
+
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            double gain = 0;
+            for (int[] nodes : classes) {
+                gain += IntStream.of(nodes).parallel()
+                        .mapToDouble(v -> move(level, v, community, total, twoM, scratch.get()))
+                        .sum();
+            }
+            if (gain / twoM < MIN_GAIN) break;
+        }
+        return community;
+    }
+
+    /**
+     * Moves v to the neighboring community with the best modularity gain.
+     * Returns the gain scaled by 2m (0 if v stays).
+     */
+    private static double move(Level level, int v, int[] community, AtomicLongArray total,
+                               double twoM, Scratch s) {
+        int current = community[v];
+        double k = level.strength[v];
+
+        // Edge weight from v to each neighboring community
+        for (int e = level.offsets[v]; e < level.offsets[v + 1]; e++) {
+            int c = community[level.targets[e]];
+            if (s.weightTo[c] == 0) s.touched[s.size++] = c;
+            s.weightTo[c] += level.weights[e];
+        }
+
+        double totalWithoutV = get(total, current) - k;
+        double stay = s.weightTo[current] - totalWithoutV * k / twoM;
+        double best = stay;
+        int target = current;
+        for (int i = 0; i < s.size; i++) {
+            int c = s.touched[i];
+            if (c == current) continue;
+            double gain = s.weightTo[c] - get(total, c) * k / twoM;
+            if (gain > best || (gain == best && c < target)) {
+                best = gain;
+                target = c;
+            }
+        }
+        for (int i = 0; i < s.size; i++) s.weightTo[s.touched[i]] = 0;
+        s.size = 0;
+
+        if (target == current || best - stay <= 0) return 0;
+        add(total, current, -k);
+        add(total, target, k);
+        community[v] = target;
+        return best - stay;
+    }
+
+    // Nodes grouped by color; a class has no two adjacent nodes
+    private static int[][] colorClasses(Level level) {
+        int[] colors = ParallelColoring.jonesPlassmann(level.offsets, level.targets);
+        int max = 0;
+        for (int c : colors) max = Math.max(max, c);
+        int[] size = new int[max + 1];
+        for (int c : colors) size[c]++;
+        int[][] classes = new int[max][];
+        for (int c = 1; c <= max; c++) classes[c - 1] = new int[size[c]];
+        int[] fill = new int[max + 1];
+        for (int v = 0; v < colors.length; v++) classes[colors[v] - 1][fill[colors[v]]++] = v;
+        return classes;
+    }
+
+    // Relabels community ids to 0..count-1 in place and returns count
+    private static int renumber(int[] community) {
+        int[] map = new int[community.length];
+        Arrays.fill(map, -1);
+        int count = 0;
+        for (int v = 0; v < community.length; v++) {
+            int c = community[v];
+            if (map[c] < 0) map[c] = count++;
+            community[v] = map[c];
+        }
+        return count;
+    }
+
+    // One node per community; parallel edges are merged, inner edges go to self
+    private static Level aggregate(Level level, int[] community, int count) {
+        // Members of each community, grouped by counting sort
+        int[] start = new int[count + 1];
+        for (int v = 0; v < level.n; v++) start[community[v] + 1]++;
+        for (int c = 0; c < count; c++) start[c + 1] += start[c];
+        int[] members = new int[level.n];
+        int[] fill = Arrays.copyOf(start, count);
+        for (int v = 0; v < level.n; v++) members[fill[community[v]]++] = v;
+
+        int[][] rowTargets = new int[count][];
+        double[][] rowWeights = new double[count][];
+        double[] self = new double[count];
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(count));
+
+        IntStream.range(0, count).parallel().forEach(c -> {
+            Scratch s = scratch.get();
+            double inner = 0;
+            for (int i = start[c]; i < start[c + 1]; i++) {
+                int v = members[i];
+                inner += level.self[v];
+                for (int e = level.offsets[v]; e < level.offsets[v + 1]; e++) {
+                    int d = community[level.targets[e]];
+                    if (d == c) {
+                        inner += level.weights[e];
+                        continue;
+                    }
+                    if (s.weightTo[d] == 0) s.touched[s.size++] = d;
+                    s.weightTo[d] += level.weights[e];
+                }
+            }
+            self[c] = inner;
+            rowTargets[c] = Arrays.copyOf(s.touched, s.size);
+            rowWeights[c] = new double[s.size];
+            for (int i = 0; i < s.size; i++) {
+                rowWeights[c][i] = s.weightTo[s.touched[i]];
+                s.weightTo[s.touched[i]] = 0;
+            }
+            s.size = 0;
+        });
+
+        int[] offsets = new int[count + 1];
+        for (int c = 0; c < count; c++) offsets[c + 1] = offsets[c] + rowTargets[c].length;
+        int[] targets = new int[offsets[count]];
+        double[] weights = new double[offsets[count]];
+        for (int c = 0; c < count; c++) {
+            System.arraycopy(rowTargets[c], 0, targets, offsets[c], rowTargets[c].length);
+            System.arraycopy(rowWeights[c], 0, weights, offsets[c], rowWeights[c].length);
+        }
+        return new Level(offsets, targets, weights, self);
+    }
+
+    private static double get(AtomicLongArray values, int i) {
+        return Double.longBitsToDouble(values.get(i));
+    }
+
+    private static void add(AtomicLongArray values, int i, double delta) {
+        while (true) {
+            long bits = values.get(i);
+            long next = Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + delta);
+            if (values.compareAndSet(i, bits, next)) return;
+        }
+    }
+
+    // Per-thread sparse accumulator over community ids
+    private static final class Scratch {
+        final double[] weightTo;
+        final int[] touched;
+        int size;
+
+        Scratch(int n) {
+            weightTo = new double[n];
+            touched = new int[n];
+        }
+    }
+}
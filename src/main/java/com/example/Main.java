@@ -17,6 +17,7 @@ import javafx.scene.control.Alert;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -43,6 +44,13 @@ public class Main extends Application {
     private GraphController graphController;
 
     private final List<Node> highlightedNodes = new ArrayList<>();
+    // Graph version the backbone view was computed for
+    private long backboneVersion;
+
+    // Upper bound for the random generator (algorithms run on the CSR snapshot)
+    private static final int MAX_GENERATED_NODES = 100_000;
+    // Брой резултати за "Find Similar People"
+    private static final int SIMILAR_PEOPLE = 10;
 
     // --- Инфо панел етикети ---
     private final Label lblId = new Label("-");
@@ -134,21 +142,35 @@ public class Main extends Application {
         Button btnBFS = new Button("BFS Search");
         Button btnDFS = new Button("DFS Search");
         Button btnDijkstra = new Button("Dijkstra (Shortest)");
+        Button btnBidirectional = new Button("Bidirectional Dijkstra");
+        Button btnContraction = new Button("CH Shortest Path");
         Button btnAStar = new Button("A* Pathfinding");
         Button btnCompare = new Button("⚡ Compare All");
         btnCompare.setStyle("-fx-background-color: #ffcc00; -fx-text-fill: black; -fx-font-weight: bold;");
 
-        setFullWidth(btnBFS, btnDFS, btnDijkstra, btnAStar, btnCompare);
+        setFullWidth(btnBFS, btnDFS, btnDijkstra, btnBidirectional, btnContraction, btnAStar, btnCompare);
 
         // Група 2: Анализ
         Label lblAnalyze = new Label("Network Analysis");
         lblAnalyze.setStyle("-fx-font-weight: bold; -fx-text-fill: #333;");
 
         Button btnComponents = new Button("Find Islands");
+        Button btnCommunities = new Button("Find Communities");
         Button btnColor = new Button("Color Graph (WP)");
+        Button btnKCore = new Button("K-Core Layers");
+        Button btnClustering = new Button("Clustering (Triangles)");
+        Button btnBackbone = new Button("Strongest Ties (Max ST)");
+        Button btnMst = new Button("Min Spanning Tree");
         Button btnCentrality = new Button("Top Leaders");
+        ComboBox<CentralityMeasure> cmbCentrality = new ComboBox<>();
+        cmbCentrality.getItems().addAll(CentralityMeasure.values());
+        cmbCentrality.setValue(CentralityMeasure.DEGREE);
+        Spinner<Integer> spnTopN = new Spinner<>(1, 1000, 5);
+        spnTopN.setEditable(true);
         
-        setFullWidth(btnComponents, btnColor, btnCentrality);
+        setFullWidth(btnComponents, btnCommunities, btnColor, btnKCore, btnClustering, btnBackbone, btnMst, btnCentrality);
+        cmbCentrality.setMaxWidth(Double.MAX_VALUE);
+        spnTopN.setMaxWidth(Double.MAX_VALUE);
 
         Label lblEdit = new Label("Edit Graph");
         lblEdit.setStyle("-fx-font-weight: bold; -fx-text-fill: #333;");
@@ -174,6 +196,16 @@ public class Main extends Application {
             graphController.runDijkstra(state, highlightedNodes);
         });
         
+        btnBidirectional.setOnAction(e -> {
+            renderer.showPathLines = true;
+            graphController.runBidirectionalDijkstra(state, highlightedNodes);
+        });
+
+        btnContraction.setOnAction(e -> {
+            renderer.showPathLines = true;
+            graphController.runContractionHierarchy(state, highlightedNodes);
+        });
+
         btnAStar.setOnAction(e -> {
             renderer.showPathLines = true;
             graphController.runAStar(state, highlightedNodes);
@@ -181,9 +213,14 @@ public class Main extends Application {
         btnCompare.setOnAction(e -> graphController.runComparison(state));
         
         btnComponents.setOnAction(e -> graphController.runComponents());
+        btnCommunities.setOnAction(e -> graphController.runCommunities());
         btnColor.setOnAction(e -> graphController.runColoring());
+        btnKCore.setOnAction(e -> graphController.runKCore());
+        btnClustering.setOnAction(e -> graphController.runClustering());
+        btnBackbone.setOnAction(e -> showBackbone(true));
+        btnMst.setOnAction(e -> showBackbone(false));
        // Подаваме списъка, за да може контролерът да го напълни с топ лидерите
-btnCentrality.setOnAction(e -> graphController.runCentrality(highlightedNodes));
+btnCentrality.setOnAction(e -> graphController.runCentrality(cmbCentrality.getValue(), spnTopN.getValue(), highlightedNodes));
 
        btnReset.setOnAction(e -> {
     resetSelection();
@@ -210,8 +247,8 @@ btnCentrality.setOnAction(e -> graphController.runCentrality(highlightedNodes));
         });
 
         box.getChildren().addAll(
-            lblSearch, btnBFS, btnDFS, btnDijkstra, btnAStar, btnCompare, new Separator(),
-            lblAnalyze, btnComponents, btnColor, btnCentrality, new Separator(),
+            lblSearch, btnBFS, btnDFS, btnDijkstra, btnBidirectional, btnContraction, btnAStar, btnCompare, new Separator(),
+            lblAnalyze, btnComponents, btnCommunities, btnColor, btnKCore, btnClustering, btnBackbone, btnMst, btnCentrality, cmbCentrality, spnTopN, new Separator(),
             lblEdit, btnAddEdge, btnRemoveEdge, btnReset
         );
         return box;
@@ -280,12 +317,8 @@ colNeighbors.setCellValueFactory(cell -> {
     // Използваме LinkedHashSet, за да няма дубликати и да пази реда на добавяне
     Set<String> uniqueNeighbors = new LinkedHashSet<>();
     
-    for (Edge e : graph.edges) {
-
-        if (e.source == currentNode) {
-            uniqueNeighbors.add(String.valueOf(e.target.id));
-        }
-        
+    for (Node neighbor : graph.getNeighbors(currentNode)) {
+        uniqueNeighbors.add(String.valueOf(neighbor.id));
     }
     
     String res = String.join(", ", uniqueNeighbors);
@@ -293,8 +326,25 @@ colNeighbors.setCellValueFactory(cell -> {
 });
 colNeighbors.setPrefWidth(120);
 
+        // Local clustering coefficient (how tight-knit the person's neighborhood is),
+        // from the last Clustering run; counting triangles on every edit is too slow
+        TableColumn<Node, String> colClustering = new TableColumn<>("Kumelenme");
+        colClustering.setCellValueFactory(cell -> {
+            double c = graphController.getClustering(cell.getValue());
+            return new SimpleStringProperty(Double.isNaN(c) ? "-" : String.format("%.3f", c));
+        });
+        colClustering.setPrefWidth(70);
+
+        // Last Top Leaders score (degree, betweenness, PageRank or eigenvector)
+        TableColumn<Node, String> colScore = new TableColumn<>("Skor");
+        colScore.setCellValueFactory(cell -> {
+            double score = graphController.getCentralityScore(cell.getValue());
+            return new SimpleStringProperty(Double.isNaN(score) ? "-" : String.format("%.4g", score));
+        });
+        colScore.setPrefWidth(60);
+
         resultTable.getColumns().clear();
-        resultTable.getColumns().addAll(colId, colActivity, colInteraction, colProjects, colNeighbors);
+        resultTable.getColumns().addAll(colId, colActivity, colInteraction, colProjects, colNeighbors, colClustering, colScore);
     }
 
     private void setFullWidth(Button... buttons) {
@@ -312,6 +362,8 @@ colNeighbors.setPrefWidth(120);
         
         Menu menuTools = new Menu("Tools");
         MenuItem itemGenerate = new MenuItem("Generate Random Data...");
+        MenuItem itemExportMatrix = new MenuItem("Export Distance Matrix...");
+        MenuItem itemAffinity = new MenuItem("Build Affinity Graph...");
 
         itemOpen.setOnAction(e -> {
             FileChooser fileChooser = new FileChooser();
@@ -336,8 +388,7 @@ colNeighbors.setPrefWidth(120);
                 } catch (IllegalArgumentException ex) {
 
                     // 🔴 HATALI JSON → HER ŞEYİ TEMİZLE
-                    graph.nodes.clear();
-                    graph.edges.clear();
+                    graph.clear();
 
                     resetSelection();
 
@@ -374,7 +425,7 @@ colNeighbors.setPrefWidth(120);
         try {
             int count = Integer.parseInt(input);
             
-            if (count > 0 && count <= 2000) {
+            if (count > 0 && count <= MAX_GENERATED_NODES) {
                 graphController.generateRandomData(canvas.getWidth(), canvas.getHeight(), count);
                 resetSelection(); 
                 infoArea.setText("Generated " + count + " random nodes.");
@@ -382,7 +433,7 @@ colNeighbors.setPrefWidth(120);
                 Alert alert = new Alert(Alert.AlertType.WARNING);
                 alert.setTitle("Invalid Input");
                 alert.setHeaderText(null);
-                alert.setContentText("Please enter a number between 1 and 2000.");
+                alert.setContentText("Please enter a number between 1 and " + MAX_GENERATED_NODES + ".");
                 alert.showAndWait();
             }
         } catch (NumberFormatException ex) {
@@ -394,10 +445,38 @@ colNeighbors.setPrefWidth(120);
         }
     });
 });
+        itemExportMatrix.setOnAction(e -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setInitialFileName("distances.csv");
+            fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv")
+            );
+            File file = fileChooser.showSaveDialog(stage);
+            if (file != null) graphController.exportDistanceMatrix(file);
+        });
+        itemAffinity.setOnAction(e -> {
+            TextInputDialog dialog = new TextInputDialog("0.5");
+            dialog.setTitle("Build Affinity Graph");
+            dialog.setHeaderText("Connects every pair whose edge cost is at least the threshold.\nExisting connections are replaced.");
+            dialog.setContentText("Cost threshold (0 - 1]:");
+            dialog.showAndWait().ifPresent(input -> {
+                try {
+                    double threshold = Double.parseDouble(input);
+                    if (threshold > 0 && threshold <= 1) {
+                        resetSelection();
+                        graphController.buildAffinityGraph(threshold);
+                    } else {
+                        infoArea.setText("Threshold must be in (0, 1].");
+                    }
+                } catch (NumberFormatException ex) {
+                    infoArea.setText("Invalid threshold: " + input);
+                }
+            });
+        });
         itemExit.setOnAction(e -> System.exit(0));
 
         menuFile.getItems().addAll(itemOpen, itemSave, new SeparatorMenuItem(), itemExit);
-        menuTools.getItems().add(itemGenerate);
+        menuTools.getItems().addAll(itemGenerate, itemExportMatrix, itemAffinity);
         menuBar.getMenus().addAll(menuFile, menuTools);
         return menuBar;
     }
@@ -407,8 +486,10 @@ colNeighbors.setPrefWidth(120);
         MenuItem itemAddNode = new MenuItem("Add Person");
         MenuItem itemEditNode = new MenuItem("Edit Properties");
         MenuItem itemDeleteNode = new MenuItem("Delete");
+        MenuItem itemSimilar = new MenuItem("Find Similar People");
+        MenuItem itemSimilarWithin = new MenuItem("Similar Within Distance...");
 
-        contextMenu.getItems().addAll(itemAddNode, itemEditNode, itemDeleteNode);
+        contextMenu.getItems().addAll(itemAddNode, itemEditNode, itemDeleteNode, itemSimilar, itemSimilarWithin);
 
         canvas.setOnContextMenuRequested(e -> {
             Node clickedNode = interactionController.findNodeAt(e.getX(), e.getY());
@@ -416,6 +497,8 @@ colNeighbors.setPrefWidth(120);
                 itemAddNode.setVisible(false);
                 itemEditNode.setVisible(true);
                 itemDeleteNode.setVisible(true);
+                itemSimilar.setVisible(true);
+                itemSimilarWithin.setVisible(true);
 
                itemEditNode.setOnAction(ev -> {
     // 1. Отваряме диалога (той блокира докато не се затвори)
@@ -439,10 +522,27 @@ colNeighbors.setPrefWidth(120);
                     draw();
                     refreshTable();
                 });
+                itemSimilar.setOnAction(ev -> graphController.findSimilar(clickedNode, SIMILAR_PEOPLE, highlightedNodes));
+                itemSimilarWithin.setOnAction(ev -> {
+                    TextInputDialog dialog = new TextInputDialog("1.0");
+                    dialog.setTitle("Similar People");
+                    dialog.setHeaderText(null);
+                    dialog.setContentText("Maximum attribute distance:");
+                    dialog.showAndWait().ifPresent(input -> {
+                        try {
+                            double radius = Double.parseDouble(input);
+                            if (radius >= 0) graphController.findSimilarWithin(clickedNode, radius, highlightedNodes);
+                        } catch (NumberFormatException ex) {
+                            infoArea.setText("Invalid distance: " + input);
+                        }
+                    });
+                });
             } else {
                 itemAddNode.setVisible(true);
                 itemEditNode.setVisible(false);
                 itemDeleteNode.setVisible(false);
+                itemSimilar.setVisible(false);
+                itemSimilarWithin.setVisible(false);
                 itemAddNode.setOnAction(ev -> {
                     Node newNode = new Node(graphController.getNextId(), "New", e.getX(), e.getY(), 0.5, 10, 2);
                     NodeFormDialog.open(newNode, true, graph, infoArea, this::draw);
@@ -465,7 +565,10 @@ colNeighbors.setPrefWidth(120);
         canvas.setOnMouseClicked(e -> {
     contextMenu.hide();
     if (e.getButton() == MouseButton.PRIMARY) {
+        long versionBefore = graph.version();
         interactionController.handleClick(e.getX(), e.getY(), state, highlightedNodes);
+        // Connect Mode може да е добавил ребро -> обновяваме k-core цветовете
+        if (graph.version() != versionBefore) graphController.refreshCoreColors();
         
         if (!state.isConnectMode && state.selected1 != null) {
             showNodeInfo(state.selected1);
@@ -501,6 +604,8 @@ colNeighbors.setPrefWidth(120);
         state.isConnectMode = false;
         highlightedNodes.clear();
         for (Node n : graph.nodes) n.colorIndex = 0;
+        graphController.stopCoreColoring();
+        renderer.backbone = null;
         
         refreshTable();
         clearNodeInfo();
@@ -533,12 +638,7 @@ private void updateTableContent() {
         viewData.add(state.selected1); // Добавяме главния герой
         
         // Намираме съседите
-        for (Edge e : graph.edges) {
-            // Тъй като пазим и двете посоки, достатъчно е да видим source
-            if (e.source == state.selected1) {
-                viewData.add(e.target);
-            }
-        }
+        viewData.addAll(graph.getNeighbors(state.selected1));
         
         resultTable.getItems().addAll(viewData);
         return;
@@ -548,7 +648,15 @@ private void updateTableContent() {
     // Няма активен алгоритъм и няма специална селекция -> покажи всичко
     resultTable.getItems().addAll(graph.nodes);
 }
+    // Draws only the spanning tree edges until the view is reset or the graph changes
+    private void showBackbone(boolean maximum) {
+        renderer.backbone = new HashSet<>(graphController.runSpanningTree(maximum));
+        backboneVersion = graph.version();
+        draw();
+    }
+
     private void draw() {
+        if (renderer.backbone != null && graph.version() != backboneVersion) renderer.backbone = null;
         renderer.draw(graph, highlightedNodes, state.selected1, state.selected2, 
                       state.isConnectMode, mouseX, mouseY);
     }
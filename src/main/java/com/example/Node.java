@@ -3,7 +3,7 @@ package com.example;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
-public class Node implements Comparable<Node> {
+public class Node {
 
     public int id;
     public String name;
@@ -13,8 +13,7 @@ public class Node implements Comparable<Node> {
     public int interaction;
     public int projects;
 
-    public double minDistance = Double.POSITIVE_INFINITY;
-    public Node previous = null;
+    // Display color only; algorithm results live in per-query arrays
     public int colorIndex = 0;
 
     private double radius = 15; // default radius
@@ -54,12 +53,6 @@ public class Node implements Comparable<Node> {
         gc.fillText(name, x - radius, y - radius - 5);
     }
 
-    // ✅ DIJKSTRA SUPPORT
-    @Override
-    public int compareTo(Node other) {
-        return Double.compare(this.minDistance, other.minDistance);
-    }
-
     // ✅ COLORING SUPPORT (Welsh–Powell)
     private Color getColorFromIndex(int idx) {
         switch (idx) {
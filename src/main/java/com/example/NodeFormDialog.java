@@ -47,10 +47,14 @@ public class NodeFormDialog {
         dialog.setResultConverter(btn -> {
             if (btn == saveType) {
                 try {
+                    // Parse everything first: a half-edited node would bypass graph.updateNode
+                    double activity = Double.parseDouble(actField.getText());
+                    int interaction = Integer.parseInt(interField.getText());
+                    int projects = Integer.parseInt(projField.getText());
                     node.name = nameField.getText();
-                    node.activity = Double.parseDouble(actField.getText());
-                    node.interaction = Integer.parseInt(interField.getText());
-                    node.projects = Integer.parseInt(projField.getText());
+                    node.activity = activity;
+                    node.interaction = interaction;
+                    node.projects = projects;
                     return node;
                 } catch (Exception e) {
                     return null;
@@ -65,6 +69,7 @@ public class NodeFormDialog {
                 graph.addNode(n);
                 infoArea.setText("Added: " + n.name);
             } else {
+                graph.updateNode(n);
                 infoArea.setText("Updated: " + n.name);
             }
             
@@ -0,0 +1,175 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Level-synchronous, direction-optimizing BFS over a {@link CsrGraph}.
+ *
+ * Each level is expanded either top-down (frontier nodes claim their
+ * unvisited neighbors) or bottom-up (unvisited nodes look for a parent in
+ * the frontier), switching on the frontier's edge count as in Beamer et al.
+ * Visited nodes are tracked in a bitset, and each level is split into
+ * chunks that run in parallel on the common fork-join pool.
+ */
+public final class ParallelBfs {
+
+    // Switch to bottom-up when frontier edges exceed unexplored edges / ALPHA,
+    // and back to top-down when the frontier shrinks below V / BETA nodes
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    // Smaller levels are not worth splitting across threads
+    private static final int CHUNK = 2048;
+
+    private ParallelBfs() {
+    }
+
+    public static final class Result {
+        // Nodes in visit order (level by level)
+        public final int[] order;
+        // Hop count from the source per node index, -1 when unreachable
+        public final int[] levels;
+        public final int depth;
+
+        Result(int[] order, int[] levels, int depth) {
+            this.order = order;
+            this.levels = levels;
+            this.depth = depth;
+        }
+    }
+
+    public static Result run(CsrGraph g, int source) {
+        int n = g.nodeCount();
+        int[] levels = new int[n];
+        Arrays.fill(levels, -1);
+        AtomicLongArray visited = new AtomicLongArray((n + 63) >>> 6);
+
+        int[] order = new int[n];
+        int count = 0;
+
+        tryVisit(visited, source);
+        levels[source] = 0;
+        order[count++] = source;
+
+        long unexploredEdges = g.edgeCount() - g.degree(source);
+        int[] frontier = { source };
+        boolean bottomUp = false;
+        int depth = 0;
+
+        while (frontier.length > 0) {
+            long frontierEdges = 0;
+            for (int u : frontier) frontierEdges += g.degree(u);
+
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) bottomUp = true;
+            else if (bottomUp && frontier.length < n / BETA) bottomUp = false;
+
+            int level = depth + 1;
+            int[] next = bottomUp
+                    ? bottomUpStep(g, frontier, visited, levels, level)
+                    : topDownStep(g, frontier, visited, levels, level);
+            if (next.length == 0) break;
+
+            for (int v : next) {
+                order[count++] = v;
+                unexploredEdges -= g.degree(v);
+            }
+            frontier = next;
+            depth = level;
+        }
+        return new Result(Arrays.copyOf(order, count), levels, depth);
+    }
+
+    private static int[] topDownStep(CsrGraph g, int[] frontier, AtomicLongArray visited,
+                                     int[] levels, int level) {
+        int chunks = (frontier.length + CHUNK - 1) / CHUNK;
+        int[][] parts = new int[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            IntList found = new IntList();
+            int end = Math.min(frontier.length, (c + 1) * CHUNK);
+            for (int i = c * CHUNK; i < end; i++) {
+                int u = frontier[i];
+                for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+                    int v = g.targets[k];
+                    if (tryVisit(visited, v)) {
+                        levels[v] = level;
+                        found.add(v);
+                    }
+                }
+            }
+            parts[c] = found.toArray();
+        });
+        return concat(parts);
+    }
+
+    private static int[] bottomUpStep(CsrGraph g, int[] frontier, AtomicLongArray visited,
+                                      int[] levels, int level) {
+        int n = g.nodeCount();
+        long[] inFrontier = new long[(n + 63) >>> 6];
+        for (int u : frontier) inFrontier[u >>> 6] |= 1L << (u & 63);
+
+        // Chunks are multiples of 64 nodes, so each bitset word has a single writer
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        int[][] parts = new int[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            IntList found = new IntList();
+            int end = Math.min(n, (c + 1) * CHUNK);
+            for (int v = c * CHUNK; v < end; v++) {
+                if (isVisited(visited, v)) continue;
+                for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                    int u = g.targets[k];
+                    if ((inFrontier[u >>> 6] & (1L << (u & 63))) != 0) {
+                        tryVisit(visited, v);
+                        levels[v] = level;
+                        found.add(v);
+                        break;
+                    }
+                }
+            }
+            parts[c] = found.toArray();
+        });
+        return concat(parts);
+    }
+
+    private static boolean isVisited(AtomicLongArray bits, int v) {
+        return (bits.get(v >>> 6) & (1L << (v & 63))) != 0;
+    }
+
+    // Atomically sets the bit of v; true if this call claimed it
+    private static boolean tryVisit(AtomicLongArray bits, int v) {
+        int word = v >>> 6;
+        long mask = 1L << (v & 63);
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) return false;
+            if (bits.compareAndSet(word, current, current | mask)) return true;
+        }
+    }
+
+    private static int[] concat(int[][] parts) {
+        int total = 0;
+        for (int[] p : parts) total += p.length;
+        int[] all = new int[total];
+        int pos = 0;
+        for (int[] p : parts) {
+            System.arraycopy(p, 0, all, pos, p.length);
+            pos += p.length;
+        }
+        return all;
+    }
+
+    private static final class IntList {
+        int[] data = new int[64];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
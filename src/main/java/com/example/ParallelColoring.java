@@ -0,0 +1,108 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Jones–Plassmann coloring over a {@link CsrGraph}.
+ *
+ * Every node gets a priority (degree first, then a hash of its index as a
+ * tie-breaker). A node is colored once all of its higher-priority neighbors
+ * are, taking the smallest color they leave free. The nodes that become
+ * ready in the same round form an independent set, so each round is colored
+ * in parallel on the common fork-join pool.
+ */
+public final class ParallelColoring {
+
+    // Rounds smaller than this are not split across threads
+    private static final int CHUNK = 1024;
+
+    private ParallelColoring() {
+    }
+
+    // Colors start at 1, like GraphAlgorithms.greedyColoring
+    public static int[] jonesPlassmann(CsrGraph g) {
+        return jonesPlassmann(g.offsets, g.targets);
+    }
+
+    // Same on raw CSR arrays (used for the aggregated graphs of Louvain)
+    static int[] jonesPlassmann(int[] offsets, int[] targets) {
+        int n = offsets.length - 1;
+        int[] colors = new int[n];
+
+        // waiting[v]: higher-priority neighbors of v that are still uncolored
+        AtomicIntegerArray waiting = new AtomicIntegerArray(n);
+        int[] ready = IntStream.range(0, n).parallel().filter(v -> {
+            int count = 0;
+            for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                if (before(offsets, targets[k], v)) count++;
+            }
+            waiting.set(v, count);
+            return count == 0;
+        }).toArray();
+
+        while (ready.length > 0) {
+            int[] round = ready;
+            int chunks = (round.length + CHUNK - 1) / CHUNK;
+            int[][] parts = new int[chunks][];
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int[] forbidden = new int[16];
+                int[] next = new int[16];
+                int found = 0;
+                int end = Math.min(round.length, (chunk + 1) * CHUNK);
+                for (int i = chunk * CHUNK; i < end; i++) {
+                    int v = round[i];
+                    // Colors never exceed degree + 1; stamps are v + 1, so no clearing is needed
+                    if (forbidden.length < degree(offsets, v) + 2) forbidden = new int[degree(offsets, v) + 2];
+                    for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                        int used = colors[targets[k]];
+                        if (used != 0 && used < forbidden.length) forbidden[used] = v + 1;
+                    }
+                    int color = 1;
+                    while (forbidden[color] == v + 1) color++;
+                    colors[v] = color;
+
+                    // Release lower-priority neighbors that were only waiting on v
+                    for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                        int u = targets[k];
+                        if (before(offsets, v, u) && waiting.decrementAndGet(u) == 0) {
+                            if (found == next.length) next = Arrays.copyOf(next, found * 2);
+                            next[found++] = u;
+                        }
+                    }
+                }
+                parts[chunk] = Arrays.copyOf(next, found);
+            });
+
+            int total = 0;
+            for (int[] p : parts) total += p.length;
+            ready = new int[total];
+            int pos = 0;
+            for (int[] p : parts) {
+                System.arraycopy(p, 0, ready, pos, p.length);
+                pos += p.length;
+            }
+        }
+        return colors;
+    }
+
+    // True if a is colored before b: higher degree first, ties broken by hash, then index
+    private static boolean before(int[] offsets, int a, int b) {
+        int da = degree(offsets, a), db = degree(offsets, b);
+        if (da != db) return da > db;
+        int ha = mix(a), hb = mix(b);
+        if (ha != hb) return ha > hb;
+        return a < b;
+    }
+
+    private static int degree(int[] offsets, int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    private static int mix(int x) {
+        x = (x ^ (x >>> 16)) * 0x45d9f3b;
+        x = (x ^ (x >>> 16)) * 0x45d9f3b;
+        return x ^ (x >>> 16);
+    }
+}
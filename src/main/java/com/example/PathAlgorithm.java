@@ -0,0 +1,9 @@
+package com.example;
+
+// Point-to-point shortest path algorithms, also used as part of the path cache key
+public enum PathAlgorithm {
+    DIJKSTRA,
+    BIDIRECTIONAL_DIJKSTRA,
+    CONTRACTION_HIERARCHY,
+    ASTAR
+}
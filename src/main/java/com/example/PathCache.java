@@ -0,0 +1,231 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of shortest path results in front of {@link GraphAlgorithms},
+ * keyed by (algorithm, source id, target id, graph version).
+ *
+ * Dijkstra lookups are also answered from full shortest-path trees: one tree
+ * per source serves every target, and since the graph is undirected a tree
+ * rooted at the target serves the reverse query too. A miss is still
+ * answered by the early-exit search; only a source that comes back gets a
+ * tree, built by {@link #buildPendingTree} so callers can keep it out of the
+ * query time they report. Trees cost O(V) memory each, so they get their
+ * own, smaller bound. Entries from older graph versions can never hit again
+ * and are dropped when the version changes.
+ */
+public final class PathCache {
+
+    public static final int DEFAULT_PATH_CAPACITY = 256;
+    public static final int DEFAULT_TREE_CAPACITY = 16;
+
+    private final Map<Key, List<Node>> paths;
+    private final Map<Key, ShortestPathTree> trees;
+    // Sources of recent Dijkstra misses, to spot the ones worth a tree
+    private final Map<Key, Boolean> recentSources;
+    private Node pendingTree;
+    private long version = -1;
+    private long hits;
+    private long misses;
+
+    public PathCache() {
+        this(DEFAULT_PATH_CAPACITY, DEFAULT_TREE_CAPACITY);
+    }
+
+    public PathCache(int pathCapacity, int treeCapacity) {
+        this.paths = lru(pathCapacity);
+        this.trees = lru(treeCapacity);
+        this.recentSources = lru(pathCapacity);
+    }
+
+    private static <V> Map<Key, V> lru(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private record Key(PathAlgorithm algorithm, int source, int target, long version) {
+    }
+
+    // Path from start to end (empty if unreachable); the returned list may be modified
+    public synchronized List<Node> path(PathAlgorithm algorithm, Graph graph, Node start, Node end) {
+        long current = syncVersion(graph);
+        if (algorithm == PathAlgorithm.DIJKSTRA) return dijkstraPath(graph, start, end, current);
+
+        Key key = new Key(algorithm, start.id, end.id, current);
+        List<Node> path = paths.get(key);
+        if (path != null) {
+            hits++;
+        } else {
+            misses++;
+            path = Collections.unmodifiableList(compute(algorithm, graph, start, end));
+            paths.put(key, path);
+        }
+        return new ArrayList<>(path);
+    }
+
+    // Full Dijkstra tree from source, computed on a miss
+    public synchronized ShortestPathTree tree(Graph graph, Node source) {
+        long current = syncVersion(graph);
+        ShortestPathTree tree = trees.get(treeKey(source, current));
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+        misses++;
+        return buildTree(graph, source, current);
+    }
+
+    // Builds the tree of a source that was queried again (if any), so its next targets hit
+    public synchronized void buildPendingTree(Graph graph) {
+        Node source = pendingTree;
+        pendingTree = null;
+        long current = syncVersion(graph);
+        if (source == null || trees.containsKey(treeKey(source, current))) return;
+        buildTree(graph, source, current);
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    // Summary line for the info panel
+    public synchronized String stats() {
+        return "Path cache: " + hits + " hits / " + misses + " misses";
+    }
+
+    public synchronized void clear() {
+        paths.clear();
+        trees.clear();
+        recentSources.clear();
+        pendingTree = null;
+        hits = 0;
+        misses = 0;
+    }
+
+    private List<Node> dijkstraPath(Graph graph, Node start, Node end, long current) {
+        ShortestPathTree tree = trees.get(treeKey(start, current));
+        if (tree != null) {
+            hits++;
+            return tree.pathTo(end);
+        }
+        tree = trees.get(treeKey(end, current));
+        if (tree != null) {
+            hits++;
+            List<Node> path = tree.pathTo(start);
+            Collections.reverse(path);
+            return path;
+        }
+
+        Key key = new Key(PathAlgorithm.DIJKSTRA, start.id, end.id, current);
+        List<Node> path = paths.get(key);
+        if (path != null) {
+            hits++;
+            return new ArrayList<>(path);
+        }
+        misses++;
+        // Only the early-exit search here; a repeated source gets its tree afterwards
+        if (recentSources.put(treeKey(start, current), Boolean.TRUE) != null) pendingTree = start;
+        path = Collections.unmodifiableList(GraphAlgorithms.runDijkstra(graph, start, end));
+        paths.put(key, path);
+        return new ArrayList<>(path);
+    }
+
+    private ShortestPathTree buildTree(Graph graph, Node source, long current) {
+        CsrGraph g = graph.snapshot();
+        ShortestPathTree tree = ShortestPathTree.of(g, g.indexOf(source));
+        trees.put(treeKey(source, current), tree);
+        return tree;
+    }
+
+    private static List<Node> compute(PathAlgorithm algorithm, Graph graph, Node start, Node end) {
+        switch (algorithm) {
+            case BIDIRECTIONAL_DIJKSTRA: return GraphAlgorithms.runBidirectionalDijkstra(graph, start, end);
+            case CONTRACTION_HIERARCHY: return GraphAlgorithms.runContractionHierarchy(graph, start, end);
+            case ASTAR: return GraphAlgorithms.runAStar(graph, start, end);
+            default: return GraphAlgorithms.runDijkstra(graph, start, end);
+        }
+    }
+
+    private static Key treeKey(Node source, long version) {
+        return new Key(PathAlgorithm.DIJKSTRA, source.id, -1, version);
+    }
+
+    private long syncVersion(Graph graph) {
+        long current = graph.version();
+        if (current != version) {
+            paths.clear();
+            trees.clear();
+            recentSources.clear();
+            pendingTree = null;
+            version = current;
+        }
+        return current;
+    }
+
+    /** Distances and parent links from one source, detached from the search state pool. */
+    public static final class ShortestPathTree {
+        private final CsrGraph graph;
+        private final int source;
+        private final double[] dist;
+        private final int[] prev;
+
+        private ShortestPathTree(CsrGraph graph, int source, double[] dist, int[] prev) {
+            this.graph = graph;
+            this.source = source;
+            this.dist = dist;
+            this.prev = prev;
+        }
+
+        static ShortestPathTree of(CsrGraph g, int source) {
+            int n = g.nodeCount();
+            double[] dist = new double[n];
+            int[] prev = new int[n];
+            if (source < 0) {
+                Arrays.fill(dist, Double.POSITIVE_INFINITY);
+                Arrays.fill(prev, -1);
+                return new ShortestPathTree(g, source, dist, prev);
+            }
+            SearchState state = g.acquireState();
+            try {
+                GraphAlgorithms.runDijkstra(g, source, -1, state);
+                for (int v = 0; v < n; v++) {
+                    dist[v] = state.distance(v);
+                    prev[v] = state.previous(v);
+                }
+            } finally {
+                state.release();
+            }
+            return new ShortestPathTree(g, source, dist, prev);
+        }
+
+        public double distanceTo(Node target) {
+            int v = graph.indexOf(target);
+            return v < 0 ? Double.POSITIVE_INFINITY : dist[v];
+        }
+
+        // Source -> target, empty if unreachable
+        public List<Node> pathTo(Node target) {
+            int v = graph.indexOf(target);
+            if (source < 0 || v < 0 || dist[v] == Double.POSITIVE_INFINITY) return new ArrayList<>();
+
+            List<Node> path = new ArrayList<>();
+            for (int x = v; x != -1; x = prev[x]) path.add(graph.node(x));
+            Collections.reverse(path);
+            return path;
+        }
+    }
+}
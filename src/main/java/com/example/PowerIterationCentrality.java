@@ -0,0 +1,178 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * PageRank and eigenvector centrality by power iteration over a
+ * {@link CsrGraph}. Each iteration pulls over the CSR rows in parallel, so
+ * no two threads write the same entry.
+ *
+ * Edge weights are optional: weighted runs use {@code costs}, which grow with
+ * the similarity of the two employees. Both methods can start from a previous
+ * {@link Result}; after a small edit the old vector is already close to the
+ * new fixed point, so only a few iterations are needed.
+ */
+public final class PowerIterationCentrality {
+
+    public static final double DEFAULT_DAMPING = 0.85;
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+    public static final int DEFAULT_MAX_ITERATIONS = 200;
+
+    private PowerIterationCentrality() {
+    }
+
+    public static final class Result {
+        public final double[] scores;
+        public final int iterations;
+        public final boolean converged;
+        // Node ids per index, so the vector can seed a run on a newer snapshot
+        private final int[] ids;
+
+        Result(CsrGraph g, double[] scores, int iterations, boolean converged) {
+            this.scores = scores;
+            this.iterations = iterations;
+            this.converged = converged;
+            this.ids = new int[g.nodeCount()];
+            for (int v = 0; v < ids.length; v++) ids[v] = g.idOf(v);
+        }
+
+        // Old scores mapped onto g's indices; nodes new to g get the mean score
+        double[] warmStartFor(CsrGraph g) {
+            double[] start = new double[g.nodeCount()];
+            Arrays.fill(start, Double.NaN);
+            double sum = 0;
+            int matched = 0;
+            for (int i = 0; i < ids.length; i++) {
+                int v = g.indexOfId(ids[i]);
+                if (v >= 0) {
+                    start[v] = scores[i];
+                    sum += scores[i];
+                    matched++;
+                }
+            }
+            double mean = matched == 0 ? 1.0 : sum / matched;
+            for (int v = 0; v < start.length; v++) {
+                if (Double.isNaN(start[v])) start[v] = mean;
+            }
+            return start;
+        }
+    }
+
+    public static Result pageRank(CsrGraph g, boolean weighted, Result previous) {
+        return pageRank(g, weighted, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, previous);
+    }
+
+    /**
+     * Scores sum to 1. Mass of isolated nodes is spread uniformly. Stops when
+     * the L1 change between two iterations drops below the tolerance.
+     */
+    public static Result pageRank(CsrGraph g, boolean weighted, double damping,
+                                  double tolerance, int maxIterations, Result previous) {
+        int n = g.nodeCount();
+        if (n == 0) return new Result(g, new double[0], 0, true);
+
+        double[] strength = strengths(g, weighted);
+        double[] x = previous == null ? uniform(n) : previous.warmStartFor(g);
+        normalizeL1(x);
+        double[] share = new double[n];
+        double[] next = new double[n];
+
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            double[] current = x;
+            IntStream.range(0, n).parallel().forEach(u ->
+                    share[u] = strength[u] == 0 ? 0 : current[u] / strength[u]);
+
+            double dangling = 0;
+            for (int u = 0; u < n; u++) if (strength[u] == 0) dangling += current[u];
+            double base = (1 - damping) / n + damping * dangling / n;
+
+            IntStream.range(0, n).parallel().forEach(v -> {
+                double sum = 0;
+                for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                    sum += share[g.targets[k]] * (weighted ? g.costs[k] : 1);
+                }
+                next[v] = base + damping * sum;
+            });
+
+            double change = l1Distance(current, next);
+            System.arraycopy(next, 0, x, 0, n);
+            if (change < tolerance) return new Result(g, x, iteration, true);
+        }
+        return new Result(g, x, maxIterations, false);
+    }
+
+    public static Result eigenvector(CsrGraph g, boolean weighted, Result previous) {
+        return eigenvector(g, weighted, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, previous);
+    }
+
+    /**
+     * Principal eigenvector of the adjacency matrix, scaled to unit length.
+     * Iterates on A + I, which has the same eigenvectors but does not
+     * oscillate on bipartite graphs.
+     */
+    public static Result eigenvector(CsrGraph g, boolean weighted, double tolerance,
+                                     int maxIterations, Result previous) {
+        int n = g.nodeCount();
+        if (n == 0) return new Result(g, new double[0], 0, true);
+
+        double[] x = previous == null ? uniform(n) : previous.warmStartFor(g);
+        normalizeL2(x);
+        double[] next = new double[n];
+
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            double[] current = x;
+            IntStream.range(0, n).parallel().forEach(v -> {
+                double sum = current[v];
+                for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) {
+                    sum += current[g.targets[k]] * (weighted ? g.costs[k] : 1);
+                }
+                next[v] = sum;
+            });
+            normalizeL2(next);
+
+            double change = l1Distance(current, next);
+            System.arraycopy(next, 0, x, 0, n);
+            if (change < tolerance) return new Result(g, x, iteration, true);
+        }
+        return new Result(g, x, maxIterations, false);
+    }
+
+    // Weighted degree per node (plain degree when unweighted)
+    private static double[] strengths(CsrGraph g, boolean weighted) {
+        double[] strength = new double[g.nodeCount()];
+        for (int v = 0; v < strength.length; v++) {
+            if (!weighted) {
+                strength[v] = g.degree(v);
+                continue;
+            }
+            for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) strength[v] += g.costs[k];
+        }
+        return strength;
+    }
+
+    private static double[] uniform(int n) {
+        double[] x = new double[n];
+        Arrays.fill(x, 1.0 / n);
+        return x;
+    }
+
+    private static void normalizeL1(double[] x) {
+        double sum = 0;
+        for (double value : x) sum += value;
+        if (sum > 0) for (int i = 0; i < x.length; i++) x[i] /= sum;
+    }
+
+    private static void normalizeL2(double[] x) {
+        double sum = 0;
+        for (double value : x) sum += value * value;
+        double norm = Math.sqrt(sum);
+        if (norm > 0) for (int i = 0; i < x.length; i++) x[i] /= norm;
+    }
+
+    private static double l1Distance(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) sum += Math.abs(a[i] - b[i]);
+        return sum;
+    }
+}
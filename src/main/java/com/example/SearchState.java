@@ -0,0 +1,107 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-query shortest path state over a {@link CsrGraph}: dense distance and
+ * predecessor arrays indexed by node. Entries are versioned with an epoch
+ * stamp, so starting a new query does not touch all V slots.
+ *
+ * States come from {@link CsrGraph#acquireState()}; call {@link #release()}
+ * when done, or keep the object to hold and compare the result.
+ */
+public final class SearchState {
+
+    private final CsrGraph graph;
+    private final SearchStatePool pool;
+
+    private final double[] dist;
+    private final int[] prev;
+    private final int[] stamp;
+    private int epoch;
+
+    private IndexedDaryHeap heap;
+
+    private int source = -1;
+    private int target = -1;
+
+    SearchState(CsrGraph graph, SearchStatePool pool) {
+        int n = graph.nodeCount();
+        this.graph = graph;
+        this.pool = pool;
+        this.dist = new double[n];
+        this.prev = new int[n];
+        this.stamp = new int[n];
+    }
+
+    // Starts a new query; previous values become invisible in O(1)
+    void reset(int source, int target) {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        this.source = source;
+        this.target = target;
+    }
+
+    void set(int v, double distance, int previous) {
+        stamp[v] = epoch;
+        dist[v] = distance;
+        prev[v] = previous;
+    }
+
+    // Priority queue reused across the queries run with this state
+    IndexedDaryHeap heap() {
+        if (heap == null) heap = new IndexedDaryHeap(graph.nodeCount());
+        heap.clear();
+        return heap;
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    // -1 when the query computed a full shortest path tree
+    public int target() {
+        return target;
+    }
+
+    public boolean reached(int v) {
+        return stamp[v] == epoch;
+    }
+
+    public double distance(int v) {
+        return stamp[v] == epoch ? dist[v] : Double.POSITIVE_INFINITY;
+    }
+
+    public int previous(int v) {
+        return stamp[v] == epoch ? prev[v] : -1;
+    }
+
+    // Index path source -> v, empty if v was not reached
+    public int[] pathTo(int v) {
+        if (v < 0 || !reached(v)) return new int[0];
+
+        int length = 0;
+        for (int x = v; x != -1; x = previous(x)) length++;
+
+        int[] path = new int[length];
+        for (int x = v, i = length - 1; x != -1; x = previous(x), i--) path[i] = x;
+        if (path[0] != source) return new int[0];
+        return path;
+    }
+
+    public List<Node> nodePathTo(int v) {
+        return graph.toNodes(pathTo(v));
+    }
+
+    // Returns the state to its pool; it must not be used afterwards
+    public void release() {
+        if (pool != null) pool.release(this);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Thread-safe pool of {@link SearchState}s for one snapshot. Each concurrent
+ * query takes its own state, so queries never share distance arrays.
+ */
+final class SearchStatePool {
+
+    private final CsrGraph graph;
+    private final ConcurrentLinkedQueue<SearchState> free = new ConcurrentLinkedQueue<>();
+
+    SearchStatePool(CsrGraph graph) {
+        this.graph = graph;
+    }
+
+    SearchState acquire() {
+        SearchState state = free.poll();
+        return state != null ? state : new SearchState(graph, this);
+    }
+
+    void release(SearchState state) {
+        free.offer(state);
+    }
+}
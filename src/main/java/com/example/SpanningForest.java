@@ -0,0 +1,153 @@
+package com.example;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Minimum / maximum spanning forest of a {@link CsrGraph} with Borůvka's
+ * algorithm.
+ *
+ * Every round, each vertex looks for its best edge leaving its component and
+ * offers it to the component root with a CAS, so the per-component selection
+ * runs in parallel without locks. The chosen edges are then merged through a
+ * lock-free union-find (CAS on the parent link, path halving). Ties are broken
+ * by the endpoint indices, which makes the order total and rules out cycles.
+ * Every round at least halves the number of components, so there are at most
+ * log2(V) rounds of O(E) work.
+ */
+public final class SpanningForest {
+
+    // Vertices per parallel task
+    private static final int CHUNK = 2048;
+
+    private SpanningForest() {
+    }
+
+    public static final class Result {
+        // Tree edge i is the CSR entry entries[i] in the adjacency of sources[i]
+        public final int[] sources;
+        public final int[] entries;
+        public final double totalCost;
+        // Connected components = trees in the forest
+        public final int trees;
+        public final int rounds;
+
+        Result(int[] sources, int[] entries, double totalCost, int trees, int rounds) {
+            this.sources = sources;
+            this.entries = entries;
+            this.totalCost = totalCost;
+            this.trees = trees;
+            this.rounds = rounds;
+        }
+    }
+
+    public static Result minimum(CsrGraph g) {
+        return run(g, false);
+    }
+
+    // Strongest ties: the spanning forest with the largest total Edge.cost
+    public static Result maximum(CsrGraph g) {
+        return run(g, true);
+    }
+
+    private static Result run(CsrGraph g, boolean maximum) {
+        int n = g.nodeCount();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) parent.set(v, v);
+        // Best outgoing CSR entry per component root, -1 if none
+        AtomicIntegerArray best = new AtomicIntegerArray(n);
+        // Source vertex of each entry, needed to compare and merge entries
+        int[] sourceOf = new int[g.edgeCount()];
+        for (int v = 0; v < n; v++) {
+            for (int k = g.offsets[v]; k < g.offsets[v + 1]; k++) sourceOf[k] = v;
+        }
+        boolean[] chosen = new boolean[g.edgeCount()];
+        int chunks = (n + CHUNK - 1) / CHUNK;
+
+        int rounds = 0;
+        while (true) {
+            for (int v = 0; v < n; v++) best.set(v, -1);
+
+            // 1. Every vertex offers its best edge out of the component to the root
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int to = Math.min(n, (c + 1) * CHUNK);
+                for (int u = c * CHUNK; u < to; u++) {
+                    int ru = find(parent, u);
+                    int mine = -1;
+                    for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+                        if (find(parent, g.targets[k]) == ru) continue;
+                        if (mine < 0 || better(g, sourceOf, k, mine, maximum)) mine = k;
+                    }
+                    if (mine < 0) continue;
+                    while (true) {
+                        int current = best.get(ru);
+                        if (current >= 0 && !better(g, sourceOf, mine, current, maximum)) break;
+                        if (best.compareAndSet(ru, current, mine)) break;
+                    }
+                }
+            });
+
+            // 2. Merge along the chosen edges; an edge picked from both sides is added once
+            int merged = IntStream.range(0, chunks).parallel().map(c -> {
+                int count = 0;
+                int to = Math.min(n, (c + 1) * CHUNK);
+                for (int r = c * CHUNK; r < to; r++) {
+                    int k = best.get(r);
+                    if (k >= 0 && union(parent, sourceOf[k], g.targets[k])) {
+                        chosen[k] = true;
+                        count++;
+                    }
+                }
+                return count;
+            }).sum();
+
+            if (merged == 0) break;
+            rounds++;
+        }
+
+        int edges = 0;
+        for (boolean c : chosen) if (c) edges++;
+        int[] sources = new int[edges];
+        int[] entries = new int[edges];
+        double total = 0;
+        int i = 0;
+        for (int k = 0; k < chosen.length; k++) {
+            if (!chosen[k]) continue;
+            sources[i] = sourceOf[k];
+            entries[i++] = k;
+            total += g.costs[k];
+        }
+        return new Result(sources, entries, total, n - edges, rounds);
+    }
+
+    // Is entry a preferred over entry b? Cost first, then the (min, max) endpoint pair
+    private static boolean better(CsrGraph g, int[] sourceOf, int a, int b, boolean maximum) {
+        int byCost = Double.compare(g.costs[a], g.costs[b]);
+        if (byCost != 0) return maximum ? byCost > 0 : byCost < 0;
+        int aLo = Math.min(sourceOf[a], g.targets[a]), bLo = Math.min(sourceOf[b], g.targets[b]);
+        if (aLo != bLo) return aLo < bLo;
+        return Math.max(sourceOf[a], g.targets[a]) < Math.max(sourceOf[b], g.targets[b]);
+    }
+
+    // Root of v; halves the path with CAS, which is safe to race with other finds and links
+    private static int find(AtomicIntegerArray parent, int v) {
+        while (true) {
+            int p = parent.get(v);
+            if (p == v) return v;
+            int gp = parent.get(p);
+            if (p != gp) parent.compareAndSet(v, p, gp);
+            v = gp;
+        }
+    }
+
+    // Links the larger root under the smaller one; false if already in one set
+    private static boolean union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            int ra = find(parent, a);
+            int rb = find(parent, b);
+            if (ra == rb) return false;
+            int lo = Math.min(ra, rb), hi = Math.max(ra, rb);
+            if (parent.compareAndSet(hi, hi, lo)) return true;
+        }
+    }
+}
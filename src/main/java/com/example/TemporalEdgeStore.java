@@ -0,0 +1,271 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validity intervals [since, until) of the edges of a {@link Graph}, kept by
+ * the graph itself. Edges added without a time are valid at all times.
+ *
+ * Only timed intervals are stored here: a timeless edge is flagged on its
+ * {@link Edge} objects, and its [MIN_TIME, MAX_TIME) interval is made up on
+ * request, so plain graphs pay nothing for the store. Timed intervals are
+ * indexed by start time, globally and per node, and the index is rebuilt
+ * lazily after changes. Every edge with an interval is also an edge of the
+ * live graph, so a snapshot "as of" t (or over a window) is a subset of the
+ * entries of {@link Graph#snapshot()}: per live snapshot the store marks the
+ * timeless entries once and locates the two entries of each timed interval.
+ * A query then copies that mask, sets the entries of the timed intervals
+ * that started before it (found by binary search) and are still active, and
+ * packs them into a {@link CsrGraph} that shares the live node indexing, so
+ * every CSR routine of {@link GraphAlgorithms} runs on it unchanged. Nodes
+ * are shared, not copied.
+ */
+public final class TemporalEdgeStore {
+
+    public static final long MIN_TIME = Long.MIN_VALUE;
+    public static final long MAX_TIME = Long.MAX_VALUE;
+
+    public record Interval(Node source, Node target, long since, long until) {
+
+        public boolean activeAt(long time) {
+            return since <= time && time < until;
+        }
+
+        // Overlaps the window [from, to)
+        public boolean overlaps(long from, long to) {
+            return since < to && from < until;
+        }
+
+        public boolean isTimeless() {
+            return since == MIN_TIME && until == MAX_TIME;
+        }
+
+        Node other(Node n) {
+            return source == n ? target : source;
+        }
+    }
+
+    private static final Comparator<Interval> BY_SINCE = Comparator.comparingLong(Interval::since);
+
+    // Timed intervals only; timeless edges are flagged on the live graph
+    private final List<Interval> intervals = new ArrayList<>();
+
+    // Lazily built indexes: timed intervals by start time, globally and per endpoint
+    private Interval[] bySince;
+    private Map<Node, Interval[]> byNode;
+
+    // Lazily built per live snapshot: which of its CSR entries are timeless,
+    // the entries (s -> t, t -> s) of bySince[k] at 2k and 2k + 1 (-1 if
+    // missing), and the snapshot of the timeless edges alone
+    private CsrGraph layoutOf;
+    private boolean[] baseEntries;
+    private int[] timedEntries;
+    private CsrGraph base;
+
+    // A timed interval; timeless edges go through Graph.addEdge(s, t) alone
+    synchronized void add(Node s, Node t, long since, long until) {
+        intervals.add(new Interval(s, t, since, until));
+        changed();
+    }
+
+    synchronized void removePair(Node s, Node t) {
+        if (intervals.removeIf(i -> (i.source == s && i.target == t) || (i.source == t && i.target == s))) changed();
+    }
+
+    synchronized void removeNode(Node n) {
+        if (intervals.removeIf(i -> i.source == n || i.target == n)) changed();
+    }
+
+    synchronized void clear() {
+        intervals.clear();
+        changed();
+    }
+
+    private void changed() {
+        bySince = null;
+        byNode = null;
+        layoutOf = null;
+        baseEntries = null;
+        timedEntries = null;
+        base = null;
+    }
+
+    // Number of timed intervals
+    public synchronized int size() {
+        return intervals.size();
+    }
+
+    // All intervals of the edge s-t, in start order (the timeless one first)
+    public synchronized List<Interval> intervalsOf(Graph graph, Node s, Node t) {
+        List<Interval> result = new ArrayList<>();
+        if (graph.isTimeless(s, t)) result.add(new Interval(s, t, MIN_TIME, MAX_TIME));
+        for (Interval i : index(s)) {
+            if (i.other(s) == t) result.add(i);
+        }
+        return result;
+    }
+
+    // Every interval of every edge: the timeless ones, then the timed ones in start order
+    public synchronized List<Interval> allIntervals(Graph graph) {
+        List<Interval> result = new ArrayList<>();
+        for (Edge e : graph.edges) {
+            if (e.timeless && e.source.id < e.target.id) result.add(new Interval(e.source, e.target, MIN_TIME, MAX_TIME));
+        }
+        result.addAll(Arrays.asList(index()));
+        return result;
+    }
+
+    // Neighbors of n through edges valid at `time`
+    public synchronized List<Node> neighborsAt(Graph graph, Node n, long time) {
+        Set<Node> result = new LinkedHashSet<>();
+        for (Edge e : graph.getEdges(n)) {
+            if (e.timeless) result.add(e.target);
+        }
+        Interval[] own = index(n);
+        int end = firstStartingAtOrAfter(own, after(time));
+        for (int k = 0; k < end; k++) {
+            if (own[k].activeAt(time)) result.add(own[k].other(n));
+        }
+        return new ArrayList<>(result);
+    }
+
+    // The graph as it was at `time`
+    public CsrGraph snapshotAt(Graph graph, long time) {
+        return build(graph, time, after(time));
+    }
+
+    // Every edge valid at some point of [from, to)
+    public CsrGraph window(Graph graph, long from, long to) {
+        if (from >= to) throw new IllegalArgumentException("Empty window: [" + from + ", " + to + ")");
+        return build(graph, from, to);
+    }
+
+    private CsrGraph build(Graph graph, long from, long to) {
+        CsrGraph live = graph.snapshot();
+        boolean[] keep = null;
+        synchronized (this) {
+            layout(graph, live);
+            // Timed intervals that started before `to` and have not ended by `from`;
+            // the mask also dedupes pairs with several such intervals
+            int end = firstStartingAtOrAfter(bySince, to);
+            for (int k = 0; k < end; k++) {
+                if (bySince[k].until <= from || timedEntries[2 * k] < 0) continue;
+                if (keep == null) keep = baseEntries.clone();
+                keep[timedEntries[2 * k]] = true;
+                keep[timedEntries[2 * k + 1]] = true;
+            }
+            if (keep == null) {
+                if (base == null) base = live.subgraph(baseEntries);
+                return base;
+            }
+        }
+        return live.subgraph(keep);
+    }
+
+    // Marks the timeless entries of the live snapshot and locates every timed
+    // interval in it, once per snapshot (O(V + E + intervals))
+    private void layout(Graph graph, CsrGraph live) {
+        if (layoutOf == live) return;
+        index();
+
+        // Entries follow graph.getEdges(node) order (see CsrGraph.of)
+        baseEntries = new boolean[live.edgeCount()];
+        for (int u = 0; u < live.nodeCount(); u++) {
+            int k = live.offsets[u];
+            for (Edge e : graph.getEdges(live.node(u))) baseEntries[k++] = e.timeless;
+        }
+
+        // Both directions of each timed interval: request 2k is s -> t of bySince[k], 2k + 1 is t -> s
+        int requests = 2 * bySince.length;
+        int[] from = new int[requests], to = new int[requests];
+        for (int k = 0; k < bySince.length; k++) {
+            int u = live.indexOf(bySince[k].source), v = live.indexOf(bySince[k].target);
+            from[2 * k] = to[2 * k + 1] = u;
+            to[2 * k] = from[2 * k + 1] = v;
+        }
+        timedEntries = findEntries(live, from, to);
+        for (int k = 0; k < requests; k += 2) {
+            if (timedEntries[k] < 0 || timedEntries[k + 1] < 0) timedEntries[k] = -1;
+        }
+        base = null;
+        layoutOf = live;
+    }
+
+    // CSR entry from[r] -> to[r] for every r (-1 if missing): requests are grouped by
+    // source with a counting sort, then each source's row is scanned once
+    private static int[] findEntries(CsrGraph g, int[] from, int[] to) {
+        int n = g.nodeCount();
+        int[] start = new int[n + 1];
+        for (int u : from) if (u >= 0) start[u + 1]++;
+        for (int u = 0; u < n; u++) start[u + 1] += start[u];
+        int[] bySource = new int[start[n]];
+        int[] fill = Arrays.copyOf(start, n);
+        for (int r = 0; r < from.length; r++) if (from[r] >= 0) bySource[fill[from[r]]++] = r;
+
+        int[] result = new int[from.length];
+        Arrays.fill(result, -1);
+        // slot[v] is the entry u -> v while owner[v] == u + 1
+        int[] slot = new int[n];
+        int[] owner = new int[n];
+        for (int u = 0; u < n; u++) {
+            if (start[u] == start[u + 1]) continue;
+            for (int k = g.offsets[u]; k < g.offsets[u + 1]; k++) {
+                slot[g.targets[k]] = k;
+                owner[g.targets[k]] = u + 1;
+            }
+            for (int i = start[u]; i < start[u + 1]; i++) {
+                int r = bySource[i];
+                if (to[r] >= 0 && owner[to[r]] == u + 1) result[r] = slot[to[r]];
+            }
+        }
+        return result;
+    }
+
+    private Interval[] index() {
+        if (bySince == null) {
+            bySince = intervals.toArray(new Interval[0]);
+            Arrays.sort(bySince, BY_SINCE);
+        }
+        return bySince;
+    }
+
+    private Interval[] index(Node n) {
+        if (byNode == null) {
+            Map<Node, List<Interval>> grouped = new HashMap<>();
+            for (Interval i : index()) group(grouped, i);
+            byNode = new HashMap<>(grouped.size() * 2);
+            for (Map.Entry<Node, List<Interval>> e : grouped.entrySet()) {
+                byNode.put(e.getKey(), e.getValue().toArray(new Interval[0]));
+            }
+        }
+        return byNode.getOrDefault(n, new Interval[0]);
+    }
+
+    private static void group(Map<Node, List<Interval>> grouped, Interval i) {
+        grouped.computeIfAbsent(i.source, k -> new ArrayList<>()).add(i);
+        grouped.computeIfAbsent(i.target, k -> new ArrayList<>()).add(i);
+    }
+
+    // Number of leading intervals (sorted by start) that start before `time`
+    private static int firstStartingAtOrAfter(Interval[] sorted, long time) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid].since < time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Exclusive end of the single-instant window [time, time + 1)
+    private static long after(long time) {
+        return time == MAX_TIME ? MAX_TIME : time + 1;
+    }
+}
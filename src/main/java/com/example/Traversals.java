@@ -0,0 +1,148 @@
+package com.example;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy traversals over a {@link Graph}: nodes are produced one at a time, so
+ * a stream that stops early (anyMatch, findFirst, limit) stops the search
+ * too and only pays for the part of the graph it actually saw.
+ *
+ * The traversals read the live adjacency index and must not outlive a
+ * change to the graph.
+ */
+public final class Traversals {
+
+    private static final int CHARACTERISTICS =
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+
+    private Traversals() {
+    }
+
+    // Same visit order as GraphAlgorithms.runBFS
+    public static Stream<Node> bfs(Graph graph, Node start) {
+        return StreamSupport.stream(bfsSpliterator(graph, start), false);
+    }
+
+    // Same visit order as GraphAlgorithms.runDFS
+    public static Stream<Node> dfs(Graph graph, Node start) {
+        return StreamSupport.stream(dfsSpliterator(graph, start), false);
+    }
+
+    // Greedy best-first: always expands the discovered node with the lowest score
+    public static Stream<Node> bestFirst(Graph graph, Node start, ToDoubleFunction<Node> score) {
+        return StreamSupport.stream(new BestFirst(graph, start, score, false), false);
+    }
+
+    // Nodes in increasing shortest path cost from start (Dijkstra order)
+    public static Stream<Node> cheapestFirst(Graph graph, Node start) {
+        return StreamSupport.stream(new BestFirst(graph, start, null, true), false);
+    }
+
+    public static Spliterator<Node> bfsSpliterator(Graph graph, Node start) {
+        return new Spliterators.AbstractSpliterator<Node>(Long.MAX_VALUE, CHARACTERISTICS) {
+            private final ArrayDeque<Node> queue = new ArrayDeque<>();
+            private final Set<Node> seen = new HashSet<>();
+
+            {
+                queue.add(start);
+                seen.add(start);
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Node> action) {
+                Node u = queue.poll();
+                if (u == null) return false;
+                for (Edge e : graph.getEdges(u)) {
+                    if (seen.add(e.target)) queue.add(e.target);
+                }
+                action.accept(u);
+                return true;
+            }
+        };
+    }
+
+    public static Spliterator<Node> dfsSpliterator(Graph graph, Node start) {
+        return new Spliterators.AbstractSpliterator<Node>(Long.MAX_VALUE, CHARACTERISTICS) {
+            private final ArrayDeque<Node> stack = new ArrayDeque<>();
+            private final Set<Node> seen = new HashSet<>();
+
+            {
+                stack.push(start);
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Node> action) {
+                while (!stack.isEmpty()) {
+                    Node u = stack.pop();
+                    if (!seen.add(u)) continue;
+                    for (Edge e : graph.getEdges(u)) {
+                        if (!seen.contains(e.target)) stack.push(e.target);
+                    }
+                    action.accept(u);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Priority-queue traversal with lazy deletion of outdated entries
+    private static final class BestFirst extends Spliterators.AbstractSpliterator<Node> {
+        private final Graph graph;
+        private final ToDoubleFunction<Node> score;
+        private final boolean byPathCost;
+        private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+        private final Map<Node, Double> best = new HashMap<>();
+        private final Set<Node> done = new HashSet<>();
+
+        private record Entry(Node node, double key) implements Comparable<Entry> {
+            @Override
+            public int compareTo(Entry other) {
+                return Double.compare(key, other.key);
+            }
+        }
+
+        BestFirst(Graph graph, Node start, ToDoubleFunction<Node> score, boolean byPathCost) {
+            super(Long.MAX_VALUE, CHARACTERISTICS);
+            this.graph = graph;
+            this.score = score;
+            this.byPathCost = byPathCost;
+            offer(start, byPathCost ? 0 : score.applyAsDouble(start));
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Node> action) {
+            while (!queue.isEmpty()) {
+                Entry entry = queue.poll();
+                Node u = entry.node();
+                if (!done.add(u)) continue;
+
+                for (Edge e : graph.getEdges(u)) {
+                    if (done.contains(e.target)) continue;
+                    offer(e.target, byPathCost ? entry.key() + e.cost : score.applyAsDouble(e.target));
+                }
+                action.accept(u);
+                return true;
+            }
+            return false;
+        }
+
+        private void offer(Node n, double key) {
+            Double known = best.get(n);
+            if (known != null && known <= key) return;
+            best.put(n, key);
+            queue.add(new Entry(n, key));
+        }
+    }
+}